@@ -0,0 +1,57 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Jumlah peminjaman aktif (Dipinjam/Terlambat) per ID inventaris. Dijaga lewat RecordStore
+ * saat peminjaman dicatat, dikembalikan atau dihapus, sehingga pemeriksaan "alat ini masih
+ * dipinjam?" tidak perlu scan seluruh data peminjaman di thread JavaFX.
+ */
+public class ActiveBorrowIndex implements RecordStore.Listener<BorrowRecord> {
+    private final Map<String, Integer> active = new HashMap<>();
+
+    public ActiveBorrowIndex(RecordStore<BorrowRecord> store) {
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(BorrowRecord record) {
+        if (record.isActive()) {
+            adjust(record.getInventoryId(), 1);
+        }
+    }
+
+    @Override
+    public synchronized void removed(BorrowRecord record) {
+        if (record.isActive()) {
+            adjust(record.getInventoryId(), -1);
+        }
+    }
+
+    @Override
+    public synchronized void fieldChanged(BorrowRecord record, int field, String oldValue, String newValue) {
+        if (field == BorrowRecord.STATUS) {
+            boolean wasActive = isActive(oldValue);
+            if (wasActive != isActive(newValue)) {
+                adjust(record.getInventoryId(), wasActive ? -1 : 1);
+            }
+        } else if (field == BorrowRecord.INVENTORY_ID && record.isActive()) {
+            adjust(oldValue, -1);
+            adjust(newValue, 1);
+        }
+    }
+
+    public synchronized boolean isBorrowed(String inventoryId) {
+        return active.containsKey(inventoryId);
+    }
+
+    private void adjust(String inventoryId, int delta) {
+        if (inventoryId != null) {
+            active.merge(inventoryId, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private static boolean isActive(String status) {
+        BorrowStatus value = BorrowStatus.fromLabel(status);
+        return value != null && value.isActive();
+    }
+}
@@ -1,5 +1,5 @@
+import java.util.concurrent.ScheduledExecutorService;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -15,11 +15,20 @@ import javafx.scene.effect.DropShadow;
 public class AvailabilityChecker {
     private Stage dialog;
     private ObservableList<InventoryItem> inventoryData;
-    private FilteredList<InventoryItem> filteredData;
+    private FilterEngine filterEngine;
+    private ScheduledExecutorService filterExecutor;
     
     public AvailabilityChecker(Stage parent, ObservableList<InventoryItem> inventoryData) {
+        this(parent, inventoryData, null, null);
+    }
+    
+    // Index boleh null: pencarian dan filter kembali memeriksa semua item
+    public AvailabilityChecker(Stage parent, ObservableList<InventoryItem> inventoryData, TrigramIndex searchIndex,
+                               SecondaryIndex secondaryIndex) {
         this.inventoryData = inventoryData;
-        this.filteredData = new FilteredList<>(inventoryData, p -> true);
+        this.filterExecutor = FilterEngine.newExecutor();
+        this.filterEngine = new FilterEngine(inventoryData, searchIndex, secondaryIndex, filterExecutor, true,
+            FilterEngine.DEFAULT_DEBOUNCE_MS);
         createDialog(parent);
     }
     
@@ -28,6 +37,7 @@ public class AvailabilityChecker {
         dialog.initModality(Modality.WINDOW_MODAL);
         dialog.initOwner(parent);
         dialog.setTitle("Cek Ketersediaan Alat");
+        dialog.setOnHidden(e -> filterExecutor.shutdownNow());
         dialog.setResizable(true);
         
         VBox mainContainer = new VBox(20);
@@ -120,45 +130,13 @@ public class AvailabilityChecker {
         
         tableContainer.getChildren().addAll(tableLabel, table);
         
-        // Filter functionality
-        Runnable updateFilter = () -> {
-            filteredData.setPredicate(item -> {
-                // Search text filter
-                String searchText = searchField.getText();
-                if (searchText != null && !searchText.isEmpty()) {
-                    String lowerCaseFilter = searchText.toLowerCase();
-                    if (!item.getNama().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getKategori().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getMerk().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getId().toLowerCase().contains(lowerCaseFilter)) {
-                        return false;
-                    }
-                }
-                
-                // Status filter
-                String statusValue = statusFilter.getValue();
-                if (statusValue != null && !statusValue.equals("Semua Status")) {
-                    if (!item.getStatus().equals(statusValue)) {
-                        return false;
-                    }
-                }
-                
-                // Category filter
-                String categoryValue = categoryFilter.getValue();
-                if (categoryValue != null && !categoryValue.equals("Semua Kategori")) {
-                    if (!item.getKategori().equals(categoryValue)) {
-                        return false;
-                    }
-                }
-                
-                return true;
-            });
-            
-            // Update statistics
-            updateStatistics(totalLabel, availableLabel, borrowedLabel, maintenanceLabel);
-        };
-        
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> updateFilter.run());
+        // Filter functionality: dievaluasi di thread latar, statistik dari pass yang sama
+        filterEngine.setOnResult(result -> updateStatistics(result, totalLabel, availableLabel, borrowedLabel, maintenanceLabel));
+        Runnable updateFilter = () -> filterEngine.submitNow(
+            new FilterEngine.Query(searchField.getText(), statusFilter.getValue(), categoryFilter.getValue()));
+        
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterEngine.submit(
+            new FilterEngine.Query(newValue, statusFilter.getValue(), categoryFilter.getValue())));
         statusFilter.setOnAction(e -> updateFilter.run());
         categoryFilter.setOnAction(e -> updateFilter.run());
         
@@ -183,7 +161,7 @@ public class AvailabilityChecker {
     
     private TableView<InventoryItem> createAvailabilityTable() {
         TableView<InventoryItem> table = new TableView<>();
-        table.setItems(filteredData);
+        table.setItems(filterEngine.getResults());
         table.setPrefHeight(300);
         
         TableColumn<InventoryItem, String> idCol = new TableColumn<>("ID");
@@ -246,16 +224,11 @@ public class AvailabilityChecker {
         return table;
     }
     
-    private void updateStatistics(Label totalLabel, Label availableLabel, Label borrowedLabel, Label maintenanceLabel) {
-        int total = filteredData.size();
-        long available = filteredData.stream().filter(item -> "Tersedia".equals(item.getStatus())).count();
-        long borrowed = filteredData.stream().filter(item -> "Dipinjam".equals(item.getStatus())).count();
-        long maintenance = filteredData.stream().filter(item -> "Maintenance".equals(item.getStatus())).count();
-        
-        totalLabel.setText("Total: " + total);
-        availableLabel.setText("Tersedia: " + available);
-        borrowedLabel.setText("Dipinjam: " + borrowed);
-        maintenanceLabel.setText("Maintenance: " + maintenance);
+    private void updateStatistics(FilterEngine.Result result, Label totalLabel, Label availableLabel, Label borrowedLabel, Label maintenanceLabel) {
+        totalLabel.setText("Total: " + result.getTotal());
+        availableLabel.setText("Tersedia: " + result.count(ItemStatus.TERSEDIA));
+        borrowedLabel.setText("Dipinjam: " + result.count(ItemStatus.DIPINJAM));
+        maintenanceLabel.setText("Maintenance: " + result.count(ItemStatus.MAINTENANCE));
     }
     
     public void showAndWait() {
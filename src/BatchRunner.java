@@ -0,0 +1,188 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Entry point tanpa tampilan untuk job terjadwal (misal cron di server tanpa display).
+ * Memakai pipeline boot yang sama dengan aplikasi: data dimuat, status diselaraskan,
+ * peminjaman terlambat ditandai dan maintenance rutin dijadwalkan. Perubahan disimpan,
+ * lalu laporan yang diminta diekspor ke file.
+ *
+ * Log ditulis ke stderr. Stdout hanya berisi satu baris JSON berisi status, lama tiap tahap
+ * (ms) dan file laporan. Exit code: 0 berhasil, 1 gagal, 2 argumen salah.
+ *
+ * Contoh: java BatchRunner --reports peminjaman,ringkasan --from 2025-01-01 --to 2025-06-30 --format html --out laporan
+ */
+public class BatchRunner {
+    // Nama pendek untuk argumen --reports, urut sama dengan ReportContentBuilder.REPORT_TYPES
+    private static final String[] REPORT_KEYS = {"inventaris", "peminjaman", "maintenance", "status", "ringkasan"};
+
+    private static final String USAGE = "Usage: java BatchRunner [--reports all|none|" + String.join(",", REPORT_KEYS) + "]"
+        + " [--from yyyy-MM-dd --to yyyy-MM-dd] [--format txt|html|csv] [--out direktori]";
+
+    public static void main(String[] args) {
+        PrintStream out = System.out;
+        System.setOut(System.err); // Pesan manager tidak mencampuri keluaran JSON
+
+        Map<String, String> options;
+        List<String> reportKeys;
+        LocalDate from;
+        LocalDate to;
+        try {
+            options = parseOptions(args);
+            reportKeys = reportKeys(options.getOrDefault("reports", "all"));
+            from = date(options.get("from"));
+            to = date(options.get("to"));
+            if ((from == null) != (to == null)) {
+                throw new IllegalArgumentException("--from dan --to harus diisi bersamaan");
+            }
+            if (!Arrays.asList(ReportSink.FORMATS).contains(options.getOrDefault("format", "txt"))) {
+                throw new IllegalArgumentException("Format tidak dikenal: " + options.get("format"));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            out.println(error(e.getMessage()));
+            System.exit(2);
+            return;
+        }
+
+        try {
+            out.println(run(reportKeys, from, to, options.getOrDefault("format", "txt"),
+                new File(options.getOrDefault("out", "."))));
+            System.exit(0);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error batch: " + cause.getMessage());
+            out.println(error(String.valueOf(cause.getMessage())));
+            System.exit(1);
+        }
+    }
+
+    private static String run(List<String> reportKeys, LocalDate from, LocalDate to, String format, File outDir)
+            throws Exception {
+        ExecutorService loader = DataBootstrap.newLoaderExecutor();
+        DataBootstrap.Result result;
+        try {
+            result = DataBootstrap.load(loader).get();
+        } finally {
+            loader.shutdown();
+        }
+
+        // Perubahan dari boot (status, keterlambatan, maintenance rutin) langsung ditulis
+        result.time("simpan perubahan", () -> {
+            WriteBehindPersister persister = new WriteBehindPersister(0);
+            result.getInventoryChanges().flushTo(persister, result.getInventory());
+            result.getBorrowChanges().flushTo(persister, result.getBorrows());
+            result.getMaintenanceChanges().flushTo(persister, result.getMaintenance());
+            persister.close();
+            if (persister.getFailedWrites() > 0) {
+                throw new IllegalStateException(persister.getFailedWrites() + " perubahan gagal disimpan ("
+                    + persister.getLastError() + ")");
+            }
+            // Maintenance rutin dari boot sudah di disk, jadwal boleh maju
+            MaintenanceScheduler.persistLastRun(result.getScheduledThrough());
+        });
+
+        List<String> files = new ArrayList<>();
+        if (!reportKeys.isEmpty()) {
+            if (!outDir.isDirectory() && !outDir.mkdirs()) {
+                throw new IOException("Direktori laporan tidak bisa dibuat: " + outDir);
+            }
+            StoreCounters counters = new StoreCounters(result.getInventoryStore(), result.getBorrowStore(),
+                result.getMaintenanceStore());
+            ReportContentBuilder builder = new ReportContentBuilder(result.getInventory(), result.getBorrows(),
+                result.getMaintenance(), counters, result.getInventoryIndex(), result.getBorrowDates(),
+                result.getMaintenanceDates());
+            for (String key : reportKeys) {
+                String reportType = ReportContentBuilder.REPORT_TYPES[Arrays.asList(REPORT_KEYS).indexOf(key)];
+                File file = new File(outDir, ReportContentBuilder.fileName(reportType, format));
+                result.time("laporan " + key, () -> {
+                    try {
+                        builder.export(reportType, from, to, format, file);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Gagal menulis " + file + ": " + e.getMessage(), e);
+                    }
+                });
+                files.add(file.getPath());
+            }
+        }
+
+        StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"timings_ms\":{");
+        String separator = "";
+        for (Map.Entry<String, Long> timing : result.getTimings().entrySet()) {
+            json.append(separator).append(quote(timing.getKey())).append(':').append(timing.getValue());
+            separator = ",";
+        }
+        json.append("},\"total_ms\":").append(result.getElapsedMillis());
+        json.append(",\"records\":{\"inventaris\":").append(result.getInventory().size())
+            .append(",\"peminjaman\":").append(result.getBorrows().size())
+            .append(",\"maintenance\":").append(result.getMaintenance().size()).append('}');
+        json.append(",\"reports\":[");
+        separator = "";
+        for (String file : files) {
+            json.append(separator).append(quote(file));
+            separator = ",";
+        }
+        return json.append("]}").toString();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Argumen tidak valid: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static List<String> reportKeys(String value) {
+        List<String> keys = new ArrayList<>();
+        if ("all".equals(value)) {
+            keys.addAll(Arrays.asList(REPORT_KEYS));
+        } else if (!"none".equals(value)) {
+            for (String key : value.split(",")) {
+                if (!Arrays.asList(REPORT_KEYS).contains(key.trim())) {
+                    throw new IllegalArgumentException("Jenis laporan tidak dikenal: " + key);
+                }
+                keys.add(key.trim());
+            }
+        }
+        return keys;
+    }
+
+    private static LocalDate date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Tanggal tidak valid: " + value);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"status\":\"error\",\"message\":" + quote(message) + "}";
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
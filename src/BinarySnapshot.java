@@ -0,0 +1,322 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Snapshot biner (opsional) di samping file CSV. Dipakai saat startup jika lebih baru
+ * dari CSV-nya, sehingga tanggal dan ID tidak perlu di-parse ulang dari teks.
+ * CSV tetap menjadi format import/export.
+ *
+ * Format (versi 1):
+ *   magic "LINV", versi, jenis store, jumlah record (varint)
+ *   dictionary string (kategori, status, lokasi, prefix ID, ...)
+ *   record: per kolom sesuai {@link Column}
+ *     ID   - varint (index prefix + 1) lalu varint nomor, atau 0 + teks jika format tidak standar
+ *     DICT - varint index dictionary
+ *     DATE - varint: 0 = kosong, 1 = teks mentah, selain itu zigzag(epochDay) + 2
+ *     TEXT - varint panjang + byte UTF-8
+ */
+public class BinarySnapshot<T> {
+    public enum Column { ID, DICT, DATE, TEXT }
+
+    public static final int STORE_INVENTORY = 1;
+    public static final int STORE_BORROW = 2;
+    public static final int STORE_MAINTENANCE = 3;
+
+    private static final int MAGIC = 0x4C494E56; // "LINV"
+    private static final int VERSION = 1;
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    private final String fileName;
+    private final int storeType;
+    private final Column[] columns;
+    private final Function<T, String[]> toFields;
+    private final Function<String[], T> fromFields;
+
+    public BinarySnapshot(String fileName, int storeType, Column[] columns,
+                          Function<T, String[]> toFields, Function<String[], T> fromFields) {
+        this.fileName = fileName;
+        this.storeType = storeType;
+        this.columns = columns;
+        this.toFields = toFields;
+        this.fromFields = fromFields;
+    }
+
+    // Snapshot biner hanya dipakai jika tidak lebih lama dari CSV (CSV diedit manual -> CSV menang)
+    public boolean isUpToDate(String csvFile) {
+        File bin = new File(fileName);
+        File csv = new File(csvFile);
+        return bin.exists() && csv.exists() && bin.lastModified() >= csv.lastModified();
+    }
+
+    // ===== Write =====
+
+    public boolean write(Collection<T> data) {
+        // Pass pertama: bangun dictionary dari kolom DICT dan prefix ID
+        List<String[]> rows = new ArrayList<>(data.size());
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (T record : data) {
+            String[] fields = toFields.apply(record);
+            rows.add(fields);
+            for (int c = 0; c < columns.length; c++) {
+                if (columns[c] == Column.DICT) {
+                    dictionary.putIfAbsent(nullToEmpty(fields[c]), dictionary.size());
+                } else if (columns[c] == Column.ID) {
+                    String prefix = idPrefix(fields[c]);
+                    if (prefix != null) {
+                        dictionary.putIfAbsent(prefix, dictionary.size());
+                    }
+                }
+            }
+        }
+
+        try (SnapshotWriter writer = new SnapshotWriter(fileName)) {
+            Encoder out = new Encoder(writer);
+            out.writeInt(MAGIC);
+            out.writeVarint(VERSION);
+            out.writeVarint(storeType);
+            out.writeVarint(rows.size());
+            out.writeVarint(dictionary.size());
+            for (String entry : dictionary.keySet()) {
+                out.writeText(entry);
+            }
+            for (String[] fields : rows) {
+                for (int c = 0; c < columns.length; c++) {
+                    writeColumn(out, columns[c], nullToEmpty(fields[c]), dictionary);
+                }
+            }
+            out.flush();
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing binary snapshot " + fileName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeColumn(Encoder out, Column column, String value, Map<String, Integer> dictionary) throws IOException {
+        switch (column) {
+            case ID:
+                String prefix = idPrefix(value);
+                if (prefix != null) {
+                    out.writeVarint(dictionary.get(prefix) + 1);
+                    out.writeVarint(Integer.parseInt(value.substring(prefix.length())));
+                } else {
+                    out.writeVarint(0);
+                    out.writeText(value);
+                }
+                break;
+            case DICT:
+                out.writeVarint(dictionary.get(value));
+                break;
+            case DATE:
+                if (value.isEmpty()) {
+                    out.writeVarint(0);
+                } else {
+                    try {
+                        long epochDay = LocalDate.parse(value).toEpochDay();
+                        if (!LocalDate.ofEpochDay(epochDay).toString().equals(value)) {
+                            throw new DateTimeParseException("non-canonical", value, 0);
+                        }
+                        out.writeVarint(((epochDay << 1) ^ (epochDay >> 63)) + 2);
+                    } catch (DateTimeParseException e) {
+                        out.writeVarint(1);
+                        out.writeText(value);
+                    }
+                }
+                break;
+            default:
+                out.writeText(value);
+        }
+    }
+
+    // Prefix huruf dari ID standar seperti HW0001 / BRW0012; null jika tidak bisa dibentuk ulang persis
+    private static String idPrefix(String id) {
+        if (id == null) {
+            return null;
+        }
+        int i = 0;
+        while (i < id.length() && Character.isLetter(id.charAt(i))) {
+            i++;
+        }
+        int digits = id.length() - i;
+        if (i == 0 || digits < 4 || digits > 9) {
+            return null;
+        }
+        for (int j = i; j < id.length(); j++) {
+            if (id.charAt(j) < '0' || id.charAt(j) > '9') {
+                return null;
+            }
+        }
+        // Nomor harus kembali sama persis dengan format %04d
+        String prefix = id.substring(0, i);
+        String number = id.substring(i);
+        if (digits > 4 && number.charAt(0) == '0') {
+            return null;
+        }
+        return prefix;
+    }
+
+    // ===== Read =====
+
+    /**
+     * Baca seluruh snapshot. Mengembalikan null jika file tidak valid, versinya tidak
+     * dikenal atau tidak bisa dibaca, sehingga pemanggil kembali ke CSV dan tidak pernah
+     * mengganti data asli dengan data contoh.
+     */
+    public List<T> read() {
+        try {
+            // Dibaca ke heap, bukan di-map: mapping yang tersisa membuat rename snapshot gagal di Windows
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName)));
+            Decoder decoder = new Decoder(in);
+            if (in.remaining() < 4 || in.getInt() != MAGIC
+                    || decoder.readVarint() != VERSION || decoder.readVarint() != storeType) {
+                System.err.println("Snapshot biner " + fileName + " tidak valid, memakai CSV");
+                return null;
+            }
+            int count = (int) decoder.readVarint();
+            String[] dictionary = new String[(int) decoder.readVarint()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = decoder.readText().intern();
+            }
+
+            List<T> records = new ArrayList<>(count);
+            String[] fields = new String[columns.length];
+            for (int r = 0; r < count; r++) {
+                for (int c = 0; c < columns.length; c++) {
+                    fields[c] = readColumn(decoder, columns[c], dictionary);
+                }
+                T record = fromFields.apply(fields);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            return records;
+        } catch (RuntimeException e) {
+            // BufferUnderflow / index di luar dictionary: file terpotong atau rusak
+            System.err.println("Snapshot biner " + fileName + " rusak, memakai CSV: " + e);
+            return null;
+        } catch (IOException e) {
+            // Terhapus atau terkunci di antara isUpToDate dan open, atau gagal di-map
+            System.err.println("Snapshot biner " + fileName + " tidak bisa dibaca, memakai CSV: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String readColumn(Decoder in, Column column, String[] dictionary) {
+        switch (column) {
+            case ID:
+                int prefix = (int) in.readVarint();
+                if (prefix == 0) {
+                    return in.readText();
+                }
+                return String.format("%s%04d", dictionary[prefix - 1], in.readVarint());
+            case DICT:
+                return dictionary[(int) in.readVarint()];
+            case DATE:
+                long tag = in.readVarint();
+                if (tag == 0) {
+                    return "";
+                } else if (tag == 1) {
+                    return in.readText();
+                }
+                long zigzag = tag - 2;
+                return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1)).toString();
+            default:
+                return in.readText();
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    // Encoder varint/teks ke SnapshotWriter dengan buffer kecil yang dipakai ulang
+    private static class Encoder {
+        private final SnapshotWriter writer;
+        private byte[] buf = new byte[FLUSH_SIZE + 16];
+        private int len;
+
+        Encoder(SnapshotWriter writer) {
+            this.writer = writer;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(4);
+            buf[len++] = (byte) (value >>> 24);
+            buf[len++] = (byte) (value >>> 16);
+            buf[len++] = (byte) (value >>> 8);
+            buf[len++] = (byte) value;
+        }
+
+        void writeVarint(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[len++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[len++] = (byte) value;
+        }
+
+        void writeText(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            if (bytes.length > FLUSH_SIZE) {
+                flush();
+                writer.write(bytes, 0, bytes.length);
+                return;
+            }
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, len, bytes.length);
+            len += bytes.length;
+        }
+
+        private void ensure(int needed) throws IOException {
+            if (len + needed > buf.length) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            writer.write(buf, 0, len);
+            len = 0;
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer in;
+        private byte[] scratch = new byte[256];
+
+        Decoder(ByteBuffer in) {
+            this.in = in;
+        }
+
+        long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readText() {
+            int length = (int) readVarint();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            in.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -13,14 +13,22 @@ import javafx.collections.transformation.FilteredList;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 public class BorrowForm {
     private Stage dialog;
     private BorrowRecord result;
     private ObservableList<InventoryItem> inventoryData;
+    private BorrowerIndex borrowerIndex;
     
     public BorrowForm(Stage parent, ObservableList<InventoryItem> inventoryData) {
+        this(parent, inventoryData, null);
+    }
+    
+    // Dengan index peminjam, pinjaman aktif peminjam langsung tampil saat nama/kontak diketik
+    public BorrowForm(Stage parent, ObservableList<InventoryItem> inventoryData, BorrowerIndex borrowerIndex) {
         this.inventoryData = inventoryData;
+        this.borrowerIndex = borrowerIndex;
         createDialog(parent);
     }
     
@@ -92,6 +100,18 @@ public class BorrowForm {
         
         TextField contactField = createTextField("Kontak (Email/No. HP)", "");
         
+        // Pinjaman peminjam yang belum dikembalikan, dari index (tanpa scan data peminjaman)
+        Label openLoansLabel = new Label("-");
+        openLoansLabel.setWrapText(true);
+        openLoansLabel.setFont(Font.font("Arial", 11));
+        openLoansLabel.setTextFill(Color.web("#7F8C8D"));
+        if (borrowerIndex != null) {
+            borrowerNameField.textProperty().addListener((obs, oldText, newText) ->
+                updateOpenLoans(openLoansLabel, newText, contactField.getText()));
+            contactField.textProperty().addListener((obs, oldText, newText) ->
+                updateOpenLoans(openLoansLabel, borrowerNameField.getText(), newText));
+        }
+        
         DatePicker borrowDatePicker = new DatePicker();
         borrowDatePicker.setPromptText("Tanggal Pinjam");
         borrowDatePicker.setValue(LocalDate.now());
@@ -195,6 +215,7 @@ public class BorrowForm {
             createFieldContainer("Nama Peminjam:", borrowerNameField),
             createFieldContainer("Tipe Peminjam:", borrowerTypeCombo),
             createFieldContainer("Kontak:", contactField),
+            createFieldContainer("Pinjaman Aktif:", openLoansLabel),
             createFieldContainer("Tanggal Pinjam:", borrowDatePicker),
             createFieldContainer("Tanggal Kembali:", returnDatePicker),
             createFieldContainer("Catatan:", notesArea),
@@ -203,10 +224,30 @@ public class BorrowForm {
         
         mainContainer.getChildren().addAll(headerLabel, formContainer);
         
-        Scene scene = new Scene(mainContainer, 500, 750);
+        Scene scene = new Scene(mainContainer, 500, 820);
         dialog.setScene(scene);
     }
     
+    private void updateOpenLoans(Label openLoansLabel, String name, String contact) {
+        List<BorrowRecord> openLoans = borrowerIndex.getOpenLoans(name, contact);
+        if (openLoans.isEmpty()) {
+            openLoansLabel.setText("-");
+            openLoansLabel.setTextFill(Color.web("#7F8C8D"));
+            return;
+        }
+        
+        StringBuilder text = new StringBuilder();
+        boolean anyOverdue = false;
+        for (BorrowRecord record : openLoans) {
+            boolean overdue = BorrowStatus.TERLAMBAT == record.getStatusValue();
+            anyOverdue |= overdue;
+            text.append(record.getBorrowId()).append(" - ").append(record.getInventoryName())
+                .append(" (kembali ").append(record.getReturnDate()).append(overdue ? ", TERLAMBAT" : "").append(")\n");
+        }
+        openLoansLabel.setText(openLoans.size() + " pinjaman belum dikembalikan:\n" + text.toString().trim());
+        openLoansLabel.setTextFill(Color.web(anyOverdue ? "#E74C3C" : "#E67E22"));
+    }
+    
     private TextField createTextField(String prompt, String value) {
         TextField field = new TextField(value);
         field.setPromptText(prompt);
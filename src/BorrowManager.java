@@ -1,24 +1,49 @@
 import java.io.*;
 import java.util.*;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class BorrowManager {
     private static final String CSV_FILE = "borrowing.csv";
     private static final String CSV_HEADER = "BorrowID,InventoryID,InventoryName,BorrowerName,BorrowerType,BorrowerContact,BorrowDate,ReturnDate,ActualReturnDate,Status,Notes";
+    private static final DataJournal JOURNAL = new DataJournal("borrowing.journal");
+    // Snapshot biner untuk startup cepat; CSV tetap format import/export
+    private static final BinarySnapshot<BorrowRecord> BINARY = new BinarySnapshot<>(
+        "borrowing.bin", BinarySnapshot.STORE_BORROW,
+        new BinarySnapshot.Column[]{
+            BinarySnapshot.Column.ID, BinarySnapshot.Column.ID, BinarySnapshot.Column.TEXT,
+            BinarySnapshot.Column.TEXT, BinarySnapshot.Column.DICT, BinarySnapshot.Column.TEXT,
+            BinarySnapshot.Column.DATE, BinarySnapshot.Column.DATE, BinarySnapshot.Column.DATE,
+            BinarySnapshot.Column.DICT, BinarySnapshot.Column.TEXT
+        },
+        r -> new String[]{r.getBorrowId(), r.getInventoryId(), r.getInventoryName(), r.getBorrowerName(),
+            r.getBorrowerType(), r.getBorrowerContact(), r.getBorrowDate(), r.getReturnDate(),
+            r.getActualReturnDate(), r.getStatus(), r.getNotes()},
+        f -> new BorrowRecord(f[0], f[1], f[2], f[3], f[4], f[5], f[6], f[7], f[8], f[9], f[10]));
     
-    public static void saveBorrowData(ObservableList<BorrowRecord> data) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CSV_FILE))) {
-            writer.println(CSV_HEADER);
-            for (BorrowRecord record : data) {
-                writer.println(record.toCSV());
-            }
-            System.out.println("Data peminjaman berhasil disimpan ke " + CSV_FILE);
-        } catch (IOException e) {
-            System.err.println("Error saving borrow data: " + e.getMessage());
+    // Target write-behind: perubahan dari UI ditulis oleh WriteBehindPersister di thread terpisah
+    public static final WriteBehindPersister.Store<BorrowRecord> WRITE_BEHIND = new WriteBehindPersister.Store<>(
+        "borrowing", BorrowRecord::getBorrowId, BorrowRecord::toCSV,
+        BorrowManager::writeBorrowChanges, JOURNAL::needsCompaction, BorrowManager::saveBorrowData);
+    
+    public static boolean saveBorrowData(List<BorrowRecord> data) {
+        // Tulis ke file sementara lalu rename atomik, file lama tetap utuh jika gagal
+        if (!SnapshotWriter.writeCsv(CSV_FILE, CSV_HEADER, data, BorrowRecord::toCSV)) {
+            return false;
         }
+        System.out.println("Data peminjaman berhasil disimpan ke " + CSV_FILE);
+        IdSequence.persist();
+        BINARY.write(data);
+        JOURNAL.truncate();
+        return true;
+    }
+    
+    // Tulis sekumpulan perubahan sekaligus (null = hapus); dipanggil dari thread write-behind
+    public static boolean writeBorrowChanges(Map<String, String> changes) {
+        boolean written = JOURNAL.appendAll(changes);
+        IdSequence.persist();
+        return written;
     }
     
     public static ObservableList<BorrowRecord> loadBorrowData() {
@@ -28,31 +53,31 @@ public class BorrowManager {
         if (!file.exists()) {
             // Create sample data if file doesn't exist
             createSampleBorrowData(data);
+            IdSequence.seedAll(data, BorrowRecord::getBorrowId);
             saveBorrowData(data);
             return data;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(CSV_FILE))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue; // Skip header
-                }
-                
-                BorrowRecord record = BorrowRecord.fromCSV(line);
-                if (record != null) {
-                    data.add(record);
-                }
+        try {
+            List<BorrowRecord> loaded = BINARY.isUpToDate(CSV_FILE) ? BINARY.read() : null;
+            if (loaded != null) {
+                data.setAll(loaded);
+                System.out.println("Data peminjaman berhasil dimuat dari snapshot biner");
+            } else {
+                // File di-map dan di-parse paralel per chunk, lalu masuk ke list dalam satu setAll
+                data.setAll(ParallelCSVLoader.load(CSV_FILE, BorrowRecord::fromRow));
+                System.out.println("Data peminjaman berhasil dimuat dari " + CSV_FILE);
+                BINARY.write(data);
             }
-            System.out.println("Data peminjaman berhasil dimuat dari " + CSV_FILE);
         } catch (IOException e) {
             System.err.println("Error loading borrow data: " + e.getMessage());
             createSampleBorrowData(data);
         }
         
+        // Terapkan perubahan yang belum di-compact ke snapshot
+        JOURNAL.replay(data, BorrowRecord::getBorrowId, BorrowRecord::fromCSV);
+        IdSequence.seedAll(data, BorrowRecord::getBorrowId);
+        
         return data;
     }
     
@@ -68,30 +93,28 @@ public class BorrowManager {
     }
     
     public static String generateNewBorrowId(ObservableList<BorrowRecord> data) {
-        int maxId = 0;
-        
-        for (BorrowRecord record : data) {
-            String id = record.getBorrowId();
-            if (id.startsWith("BRW")) {
-                try {
-                    int numId = Integer.parseInt(id.substring(3));
-                    maxId = Math.max(maxId, numId);
-                } catch (NumberFormatException e) {
-                    // Ignore invalid IDs
-                }
-            }
-        }
-        
-        return String.format("BRW%04d", maxId + 1);
+        // High-water mark sudah diisi saat load, tidak perlu scan data
+        return IdSequence.next("BRW");
     }
     
     public static boolean isItemBorrowed(ObservableList<BorrowRecord> data, String inventoryId) {
         return data.stream().anyMatch(record -> 
             record.getInventoryId().equals(inventoryId) && 
-            ("Dipinjam".equals(record.getStatus()) || "Terlambat".equals(record.getStatus()))
+            record.isActive()
         );
     }
     
+    // Semua inventoryId yang sedang dipinjam (Dipinjam/Terlambat) dalam satu pass
+    public static Set<String> getActiveBorrowInventoryIds(List<BorrowRecord> data) {
+        Set<String> ids = new HashSet<>();
+        for (BorrowRecord record : data) {
+            if (record.isActive()) {
+                ids.add(record.getInventoryId());
+            }
+        }
+        return ids;
+    }
+    
     public static boolean returnItem(ObservableList<BorrowRecord> data, String borrowId, String returnNotes) {
         for (BorrowRecord record : data) {
             if (record.getBorrowId().equals(borrowId)) {
@@ -104,44 +127,27 @@ public class BorrowManager {
         return false;
     }
     
-    public static List<BorrowRecord> getOverdueItems(ObservableList<BorrowRecord> data) {
-        LocalDate today = LocalDate.now();
-        List<BorrowRecord> overdueItems = new ArrayList<>();
-        
-        for (BorrowRecord record : data) {
-            if ("Dipinjam".equals(record.getStatus())) {
-                try {
-                    LocalDate returnDate = LocalDate.parse(record.getReturnDate());
-                    if (today.isAfter(returnDate)) {
-                        record.setStatus("Terlambat");
-                        overdueItems.add(record);
-                    }
-                } catch (Exception e) {
-                    // Skip records with invalid dates
-                }
-            }
-        }
-        
-        return overdueItems;
+    // Peminjaman yang baru lewat tenggat hari ini, diambil dari heap tenggat (bukan scan data)
+    public static List<BorrowRecord> getOverdueItems(OverdueTracker tracker) {
+        return tracker.expire(LocalDate.now());
     }
     
     public static List<BorrowRecord> getActiveBorrows(ObservableList<BorrowRecord> data) {
         return data.stream()
-            .filter(record -> "Dipinjam".equals(record.getStatus()) || "Terlambat".equals(record.getStatus()))
+            .filter(record -> record.isActive())
             .collect(java.util.stream.Collectors.toList());
     }
     
     public static long getDaysOverdue(BorrowRecord record) {
-        if (!"Terlambat".equals(record.getStatus())) {
-            return 0;
-        }
-        
-        try {
-            LocalDate returnDate = LocalDate.parse(record.getReturnDate());
-            LocalDate today = LocalDate.now();
-            return ChronoUnit.DAYS.between(returnDate, today);
-        } catch (Exception e) {
+        return getDaysOverdue(record, LocalDate.now().toEpochDay());
+    }
+    
+    // Untuk banyak baris sekaligus: hari ini dihitung sekali, tanggal kembali sudah epoch day
+    public static long getDaysOverdue(BorrowRecord record, long todayEpochDay) {
+        if (BorrowStatus.TERLAMBAT != record.getStatusValue()) {
             return 0;
         }
+        int returnDay = record.epochDay(BorrowRecord.RETURN_DATE);
+        return returnDay == CompactRecord.NO_DATE ? 0 : todayEpochDay - returnDay;
     }
 }
\ No newline at end of file
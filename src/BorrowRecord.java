@@ -1,132 +1,165 @@
+import java.time.LocalDate;
 import javafx.beans.property.SimpleStringProperty;
 
-public class BorrowRecord {
-    private SimpleStringProperty borrowId;
-    private SimpleStringProperty inventoryId;
-    private SimpleStringProperty inventoryName;
-    private SimpleStringProperty borrowerName;
-    private SimpleStringProperty borrowerType;
-    private SimpleStringProperty borrowerContact;
-    private SimpleStringProperty borrowDate;
-    private SimpleStringProperty returnDate;
-    private SimpleStringProperty actualReturnDate;
-    private SimpleStringProperty status;
-    private SimpleStringProperty notes;
+public class BorrowRecord extends CompactRecord {
+    // Index field (adapter property dan event perubahan)
+    public static final int BORROW_ID = 0, INVENTORY_ID = 1, INVENTORY_NAME = 2, BORROWER_NAME = 3,
+        BORROWER_TYPE = 4, BORROWER_CONTACT = 5, BORROW_DATE = 6, RETURN_DATE = 7,
+        ACTUAL_RETURN_DATE = 8, STATUS = 9, NOTES = 10;
+    private static final int FIELD_COUNT = 11;
+
+    private String borrowId;
+    private String inventoryId;
+    private String inventoryName;
+    private String borrowerName;
+    private String borrowerType;
+    private String borrowerContact;
+    private int borrowDate;
+    private int returnDate;
+    private int actualReturnDate;
+    private String status;
+    private String notes;
+    // Teks tanggal mentah, hanya jika tidak berformat yyyy-MM-dd (jarang)
+    private String borrowDateRaw;
+    private String returnDateRaw;
+    private String actualReturnDateRaw;
     
     public BorrowRecord(String borrowId, String inventoryId, String inventoryName,
                        String borrowerName, String borrowerType, String borrowerContact,
                        String borrowDate, String returnDate, String actualReturnDate,
                        String status, String notes) {
-        this.borrowId = new SimpleStringProperty(borrowId);
-        this.inventoryId = new SimpleStringProperty(inventoryId);
-        this.inventoryName = new SimpleStringProperty(inventoryName);
-        this.borrowerName = new SimpleStringProperty(borrowerName);
-        this.borrowerType = new SimpleStringProperty(borrowerType);
-        this.borrowerContact = new SimpleStringProperty(borrowerContact);
-        this.borrowDate = new SimpleStringProperty(borrowDate);
-        this.returnDate = new SimpleStringProperty(returnDate);
-        this.actualReturnDate = new SimpleStringProperty(actualReturnDate != null ? actualReturnDate : "");
-        this.status = new SimpleStringProperty(status);
-        this.notes = new SimpleStringProperty(notes != null ? notes : "");
+        this.borrowId = borrowId;
+        this.inventoryId = inventoryId;
+        this.inventoryName = inventoryName;
+        this.borrowerName = borrowerName;
+        this.borrowerType = intern(borrowerType);
+        this.borrowerContact = borrowerContact;
+        this.borrowDate = parseDate(borrowDate);
+        this.borrowDateRaw = rawDate(borrowDate, this.borrowDate);
+        this.returnDate = parseDate(returnDate);
+        this.returnDateRaw = rawDate(returnDate, this.returnDate);
+        this.actualReturnDate = parseDate(actualReturnDate);
+        this.actualReturnDateRaw = rawDate(actualReturnDate, this.actualReturnDate);
+        this.status = intern(status);
+        this.notes = nullToEmpty(notes);
     }
     
+    @Override
+    protected int fieldCount() { return FIELD_COUNT; }
+    
     // Getters
-    public String getBorrowId() { return borrowId.get(); }
-    public String getInventoryId() { return inventoryId.get(); }
-    public String getInventoryName() { return inventoryName.get(); }
-    public String getBorrowerName() { return borrowerName.get(); }
-    public String getBorrowerType() { return borrowerType.get(); }
-    public String getBorrowerContact() { return borrowerContact.get(); }
-    public String getBorrowDate() { return borrowDate.get(); }
-    public String getReturnDate() { return returnDate.get(); }
-    public String getActualReturnDate() { return actualReturnDate.get(); }
-    public String getStatus() { return status.get(); }
-    public String getNotes() { return notes.get(); }
+    public String getBorrowId() { return borrowId; }
+    public String getInventoryId() { return inventoryId; }
+    public String getInventoryName() { return inventoryName; }
+    public String getBorrowerName() { return borrowerName; }
+    public String getBorrowerType() { return borrowerType; }
+    public String getBorrowerContact() { return borrowerContact; }
+    public String getBorrowDate() { return dateText(borrowDate, borrowDateRaw); }
+    public String getReturnDate() { return dateText(returnDate, returnDateRaw); }
+    public String getActualReturnDate() { return dateText(actualReturnDate, actualReturnDateRaw); }
+    public String getStatus() { return status; }
+    public String getNotes() { return notes; }
+    
+    // Typed getters - null jika kosong/tidak dikenal
+    public LocalDate getBorrowLocalDate() { return toLocalDate(borrowDate); }
+    public LocalDate getReturnLocalDate() { return toLocalDate(returnDate); }
+    public LocalDate getActualReturnLocalDate() { return toLocalDate(actualReturnDate); }
+    
+    // Epoch day field tanggal (BORROW_DATE, RETURN_DATE, ACTUAL_RETURN_DATE), NO_DATE jika kosong
+    int epochDay(int field) {
+        switch (field) {
+            case BORROW_DATE: return borrowDate;
+            case RETURN_DATE: return returnDate;
+            case ACTUAL_RETURN_DATE: return actualReturnDate;
+            default: throw new IllegalArgumentException("Bukan field tanggal: " + field);
+        }
+    }
+    public BorrowStatus getStatusValue() { return BorrowStatus.fromLabel(status); }
+    public BorrowerType getBorrowerTypeValue() { return BorrowerType.fromLabel(borrowerType); }
     
-    // Property getters for TableView
-    public SimpleStringProperty borrowIdProperty() { return borrowId; }
-    public SimpleStringProperty inventoryIdProperty() { return inventoryId; }
-    public SimpleStringProperty inventoryNameProperty() { return inventoryName; }
-    public SimpleStringProperty borrowerNameProperty() { return borrowerName; }
-    public SimpleStringProperty borrowerTypeProperty() { return borrowerType; }
-    public SimpleStringProperty borrowerContactProperty() { return borrowerContact; }
-    public SimpleStringProperty borrowDateProperty() { return borrowDate; }
-    public SimpleStringProperty returnDateProperty() { return returnDate; }
-    public SimpleStringProperty actualReturnDateProperty() { return actualReturnDate; }
-    public SimpleStringProperty statusProperty() { return status; }
-    public SimpleStringProperty notesProperty() { return notes; }
+    // Alat masih di tangan peminjam (Dipinjam/Terlambat)
+    public boolean isActive() {
+        BorrowStatus value = getStatusValue();
+        return value != null && value.isActive();
+    }
+    
+    // Property getters for TableView (dibuat saat pertama kali diminta)
+    public SimpleStringProperty borrowIdProperty() { return property(BORROW_ID, "borrowId", borrowId, this::setBorrowId); }
+    public SimpleStringProperty inventoryIdProperty() { return property(INVENTORY_ID, "inventoryId", inventoryId, this::setInventoryId); }
+    public SimpleStringProperty inventoryNameProperty() { return property(INVENTORY_NAME, "inventoryName", inventoryName, this::setInventoryName); }
+    public SimpleStringProperty borrowerNameProperty() { return property(BORROWER_NAME, "borrowerName", borrowerName, this::setBorrowerName); }
+    public SimpleStringProperty borrowerTypeProperty() { return property(BORROWER_TYPE, "borrowerType", borrowerType, this::setBorrowerType); }
+    public SimpleStringProperty borrowerContactProperty() { return property(BORROWER_CONTACT, "borrowerContact", borrowerContact, this::setBorrowerContact); }
+    public SimpleStringProperty borrowDateProperty() { return property(BORROW_DATE, "borrowDate", getBorrowDate(), this::setBorrowDate); }
+    public SimpleStringProperty returnDateProperty() { return property(RETURN_DATE, "returnDate", getReturnDate(), this::setReturnDate); }
+    public SimpleStringProperty actualReturnDateProperty() { return property(ACTUAL_RETURN_DATE, "actualReturnDate", getActualReturnDate(), this::setActualReturnDate); }
+    public SimpleStringProperty statusProperty() { return property(STATUS, "status", status, this::setStatus); }
+    public SimpleStringProperty notesProperty() { return property(NOTES, "notes", notes, this::setNotes); }
     
     // Setters
-    public void setBorrowId(String borrowId) { this.borrowId.set(borrowId); }
-    public void setInventoryId(String inventoryId) { this.inventoryId.set(inventoryId); }
-    public void setInventoryName(String inventoryName) { this.inventoryName.set(inventoryName); }
-    public void setBorrowerName(String borrowerName) { this.borrowerName.set(borrowerName); }
-    public void setBorrowerType(String borrowerType) { this.borrowerType.set(borrowerType); }
-    public void setBorrowerContact(String borrowerContact) { this.borrowerContact.set(borrowerContact); }
-    public void setBorrowDate(String borrowDate) { this.borrowDate.set(borrowDate); }
-    public void setReturnDate(String returnDate) { this.returnDate.set(returnDate); }
-    public void setActualReturnDate(String actualReturnDate) { this.actualReturnDate.set(actualReturnDate != null ? actualReturnDate : ""); }
-    public void setStatus(String status) { this.status.set(status); }
-    public void setNotes(String notes) { this.notes.set(notes != null ? notes : ""); }
+    public void setBorrowId(String borrowId) { String old = this.borrowId; this.borrowId = borrowId; updated(BORROW_ID, old, this.borrowId); }
+    public void setInventoryId(String inventoryId) { String old = this.inventoryId; this.inventoryId = inventoryId; updated(INVENTORY_ID, old, this.inventoryId); }
+    public void setInventoryName(String inventoryName) { String old = this.inventoryName; this.inventoryName = inventoryName; updated(INVENTORY_NAME, old, this.inventoryName); }
+    public void setBorrowerName(String borrowerName) { String old = this.borrowerName; this.borrowerName = borrowerName; updated(BORROWER_NAME, old, this.borrowerName); }
+    public void setBorrowerType(String borrowerType) { String old = this.borrowerType; this.borrowerType = intern(borrowerType); updated(BORROWER_TYPE, old, this.borrowerType); }
+    public void setBorrowerContact(String borrowerContact) { String old = this.borrowerContact; this.borrowerContact = borrowerContact; updated(BORROWER_CONTACT, old, this.borrowerContact); }
+    public void setBorrowDate(String borrowDate) {
+        String old = getBorrowDate();
+        this.borrowDate = parseDate(borrowDate);
+        this.borrowDateRaw = rawDate(borrowDate, this.borrowDate);
+        updated(BORROW_DATE, old, getBorrowDate());
+    }
+    public void setReturnDate(String returnDate) {
+        String old = getReturnDate();
+        this.returnDate = parseDate(returnDate);
+        this.returnDateRaw = rawDate(returnDate, this.returnDate);
+        updated(RETURN_DATE, old, getReturnDate());
+    }
+    public void setActualReturnDate(String actualReturnDate) {
+        String old = getActualReturnDate();
+        this.actualReturnDate = parseDate(actualReturnDate);
+        this.actualReturnDateRaw = rawDate(actualReturnDate, this.actualReturnDate);
+        updated(ACTUAL_RETURN_DATE, old, getActualReturnDate());
+    }
+    public void setStatus(String status) { String old = this.status; this.status = intern(status); updated(STATUS, old, this.status); }
+    public void setNotes(String notes) { String old = this.notes; this.notes = nullToEmpty(notes); updated(NOTES, old, this.notes); }
     
     // Convert to CSV format
     public String toCSV() {
         return String.join(",", 
             getBorrowId(), 
             getInventoryId(), 
-            "\"" + getInventoryName().replace("\"", "\"\"") + "\"",
-            "\"" + getBorrowerName().replace("\"", "\"\"") + "\"",
-            getBorrowerType(), 
-            "\"" + getBorrowerContact().replace("\"", "\"\"") + "\"",
+            CSVTokenizer.quote(getInventoryName()),
+            CSVTokenizer.quote(getBorrowerName()),
+            CSVTokenizer.escape(getBorrowerType()), 
+            CSVTokenizer.quote(getBorrowerContact()),
             getBorrowDate(), 
             getReturnDate(), 
             getActualReturnDate(), 
             getStatus(),
-            "\"" + getNotes().replace("\"", "\"\"") + "\""
+            CSVTokenizer.quote(getNotes())
         );
     }
     
     // Create from CSV line
     public static BorrowRecord fromCSV(String csvLine) {
         try {
-            String[] parts = parseCSVLine(csvLine);
-            if (parts.length >= 11) {
-                return new BorrowRecord(
-                    parts[0], parts[1], parts[2], parts[3], parts[4], 
-                    parts[5], parts[6], parts[7], parts[8], parts[9], parts[10]
-                );
-            }
+            CSVTokenizer row = new CSVTokenizer(csvLine);
+            return row.next() ? fromRow(row) : null;
         } catch (Exception e) {
             System.err.println("Error parsing borrow CSV line: " + csvLine);
         }
         return null;
     }
     
-    // Helper method to parse CSV line with quoted fields
-    private static String[] parseCSVLine(String csvLine) {
-        java.util.List<String> result = new java.util.ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder field = new StringBuilder();
-        
-        for (int i = 0; i < csvLine.length(); i++) {
-            char c = csvLine.charAt(i);
-            
-            if (c == '"') {
-                if (inQuotes && i + 1 < csvLine.length() && csvLine.charAt(i + 1) == '"') {
-                    field.append('"');
-                    i++; // Skip next quote
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                result.add(field.toString());
-                field = new StringBuilder();
-            } else {
-                field.append(c);
-            }
+    // Create langsung dari record tokenizer (tanpa array sementara)
+    public static BorrowRecord fromRow(CSVTokenizer row) {
+        if (row.size() >= 11) {
+            return new BorrowRecord(
+                row.get(0), row.get(1), row.get(2), row.get(3), row.get(4), 
+                row.get(5), row.get(6), row.get(7), row.get(8), row.get(9), row.get(10)
+            );
         }
-        result.add(field.toString());
-        
-        return result.toArray(new String[0]);
+        return null;
     }
 }
\ No newline at end of file
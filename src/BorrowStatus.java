@@ -0,0 +1,42 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Status peminjaman
+public enum BorrowStatus {
+    DIPINJAM("Dipinjam"),
+    TERLAMBAT("Terlambat"),
+    DIKEMBALIKAN("Dikembalikan");
+
+    private static final Map<String, BorrowStatus> BY_LABEL = new HashMap<>();
+    static {
+        for (BorrowStatus value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+
+    BorrowStatus(String label) {
+        this.label = label;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    // Alat masih di tangan peminjam (termasuk yang terlambat)
+    public boolean isActive() {
+        return this == DIPINJAM || this == TERLAMBAT;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static BorrowStatus fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.*;
+
+/**
+ * Index peminjam. Record peminjaman dikelompokkan per nama peminjam yang dinormalisasi
+ * (huruf kecil, spasi dirapikan) dan per kontak yang dinormalisasi, sehingga riwayat
+ * seorang peminjam tidak perlu scan seluruh data peminjaman. Jumlah pinjaman aktif dan
+ * terlambat per peminjam ikut dijaga, diperbarui lewat RecordStore saat peminjaman dicatat,
+ * dikembalikan (perubahan status) atau nama/kontaknya diubah.
+ */
+public class BorrowerIndex implements RecordStore.Listener<BorrowRecord> {
+
+    // Semua peminjaman satu peminjam (per nama) beserta jumlah aktif/terlambat
+    private static final class Borrower {
+        private final Set<BorrowRecord> records = new LinkedHashSet<>();
+        private String displayName;
+        private int active;
+        private int overdue;
+    }
+
+    private final Map<String, Borrower> byName = new HashMap<>();
+    private final Map<String, Set<BorrowRecord>> byContact = new HashMap<>();
+
+    public BorrowerIndex(RecordStore<BorrowRecord> store) {
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(BorrowRecord record) {
+        linkName(record, record.getBorrowerName());
+        linkContact(record, record.getBorrowerContact());
+    }
+
+    @Override
+    public synchronized void removed(BorrowRecord record) {
+        unlinkName(record, record.getBorrowerName(), record.getStatus());
+        unlinkContact(record, record.getBorrowerContact());
+    }
+
+    @Override
+    public synchronized void fieldChanged(BorrowRecord record, int field, String oldValue, String newValue) {
+        switch (field) {
+            case BorrowRecord.BORROWER_NAME:
+                unlinkName(record, oldValue, record.getStatus());
+                linkName(record, newValue);
+                break;
+            case BorrowRecord.BORROWER_CONTACT:
+                unlinkContact(record, oldValue);
+                linkContact(record, newValue);
+                break;
+            case BorrowRecord.STATUS:
+                Borrower borrower = byName.get(normalizeName(record.getBorrowerName()));
+                if (borrower != null && borrower.records.contains(record)) {
+                    count(borrower, oldValue, -1);
+                    count(borrower, newValue, 1);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Semua peminjaman atas nama peminjam, urut dicatat
+    public synchronized List<BorrowRecord> getHistory(String name) {
+        Borrower borrower = byName.get(normalizeName(name));
+        return borrower != null ? new ArrayList<>(borrower.records) : new ArrayList<>();
+    }
+
+    // Semua peminjaman dengan kontak tersebut (nama bisa ditulis berbeda)
+    public synchronized List<BorrowRecord> getHistoryByContact(String contact) {
+        Set<BorrowRecord> records = byContact.get(normalizeContact(contact));
+        return records != null ? new ArrayList<>(records) : new ArrayList<>();
+    }
+
+    /**
+     * Pinjaman yang masih di tangan peminjam (Dipinjam/Terlambat), dicocokkan lewat nama
+     * atau kontak. Salah satunya boleh kosong; yang kosong tidak dicocokkan.
+     */
+    public synchronized List<BorrowRecord> getOpenLoans(String name, String contact) {
+        Set<BorrowRecord> open = new LinkedHashSet<>();
+        String nameKey = normalizeName(name);
+        Borrower borrower = nameKey.isEmpty() ? null : byName.get(nameKey);
+        if (borrower != null && borrower.active > 0) {
+            collectActive(borrower.records, open);
+        }
+        String contactKey = normalizeContact(contact);
+        Set<BorrowRecord> byThisContact = contactKey.isEmpty() ? null : byContact.get(contactKey);
+        if (byThisContact != null) {
+            collectActive(byThisContact, open);
+        }
+        return new ArrayList<>(open);
+    }
+
+    // Pinjaman Terlambat atas nama peminjam
+    public synchronized List<BorrowRecord> getOverdue(String name) {
+        List<BorrowRecord> overdue = new ArrayList<>();
+        Borrower borrower = byName.get(normalizeName(name));
+        if (borrower != null && borrower.overdue > 0) {
+            for (BorrowRecord record : borrower.records) {
+                if (BorrowStatus.TERLAMBAT == record.getStatusValue()) {
+                    overdue.add(record);
+                }
+            }
+        }
+        return overdue;
+    }
+
+    public synchronized int countActive(String name) {
+        Borrower borrower = byName.get(normalizeName(name));
+        return borrower != null ? borrower.active : 0;
+    }
+
+    public synchronized int countOverdue(String name) {
+        Borrower borrower = byName.get(normalizeName(name));
+        return borrower != null ? borrower.overdue : 0;
+    }
+
+    // Peminjam dengan pinjaman terlambat terbanyak (nama -> jumlah), paling banyak limit entri
+    public synchronized Map<String, Integer> getTopOverdue(int limit) {
+        List<Borrower> late = new ArrayList<>();
+        for (Borrower borrower : byName.values()) {
+            if (borrower.overdue > 0) {
+                late.add(borrower);
+            }
+        }
+        late.sort(Comparator.comparingInt((Borrower borrower) -> borrower.overdue).reversed()
+            .thenComparing(borrower -> borrower.displayName));
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Borrower borrower : late.subList(0, Math.min(limit, late.size()))) {
+            top.put(borrower.displayName, borrower.overdue);
+        }
+        return top;
+    }
+
+    // Nama kosong tidak diindex: record tanpa nama bukan satu peminjam yang sama
+    private void linkName(BorrowRecord record, String name) {
+        String key = normalizeName(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Borrower borrower = byName.computeIfAbsent(key, k -> new Borrower());
+        if (borrower.records.add(record)) {
+            borrower.displayName = name != null ? name.trim() : "";
+            count(borrower, record.getStatus(), 1);
+        }
+    }
+
+    private void unlinkName(BorrowRecord record, String name, String status) {
+        String key = normalizeName(name);
+        Borrower borrower = byName.get(key);
+        if (borrower != null && borrower.records.remove(record)) {
+            count(borrower, status, -1);
+            if (borrower.records.isEmpty()) {
+                byName.remove(key);
+            }
+        }
+    }
+
+    private void linkContact(BorrowRecord record, String contact) {
+        String key = normalizeContact(contact);
+        if (!key.isEmpty()) {
+            byContact.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(record);
+        }
+    }
+
+    private void unlinkContact(BorrowRecord record, String contact) {
+        String key = normalizeContact(contact);
+        Set<BorrowRecord> records = byContact.get(key);
+        if (records != null && records.remove(record) && records.isEmpty()) {
+            byContact.remove(key);
+        }
+    }
+
+    private static void count(Borrower borrower, String status, int delta) {
+        BorrowStatus value = BorrowStatus.fromLabel(status);
+        if (value != null && value.isActive()) {
+            borrower.active += delta;
+        }
+        if (value == BorrowStatus.TERLAMBAT) {
+            borrower.overdue += delta;
+        }
+    }
+
+    private static void collectActive(Set<BorrowRecord> records, Set<BorrowRecord> into) {
+        for (BorrowRecord record : records) {
+            if (record.isActive()) {
+                into.add(record);
+            }
+        }
+    }
+
+    // "  Budi   Santoso " dan "budi santoso" adalah peminjam yang sama
+    static String normalizeName(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    // Spasi dan tanda hubung diabaikan: "0812-3456 789" sama dengan "08123456789"
+    static String normalizeContact(String contact) {
+        return contact == null ? "" : contact.replaceAll("[\\s-]", "").toLowerCase();
+    }
+}
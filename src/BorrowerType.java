@@ -0,0 +1,38 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Jenis peminjam
+public enum BorrowerType {
+    MAHASISWA("Mahasiswa"),
+    DOSEN("Dosen"),
+    STAFF("Staff"),
+    TAMU("Tamu");
+
+    private static final Map<String, BorrowerType> BY_LABEL = new HashMap<>();
+    static {
+        for (BorrowerType value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+
+    BorrowerType(String label) {
+        this.label = label;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static BorrowerType fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
@@ -6,17 +6,42 @@ import javafx.collections.ObservableList;
 public class CSVManager {
     private static final String CSV_FILE = "inventory.csv";
     private static final String CSV_HEADER = "ID,Nama,Kategori,Merk,Kondisi,Lokasi,Status,Tanggal Masuk";
+    private static final DataJournal JOURNAL = new DataJournal("inventory.journal");
+    // Snapshot biner untuk startup cepat; CSV tetap format import/export
+    private static final BinarySnapshot<InventoryItem> BINARY = new BinarySnapshot<>(
+        "inventory.bin", BinarySnapshot.STORE_INVENTORY,
+        new BinarySnapshot.Column[]{
+            BinarySnapshot.Column.ID, BinarySnapshot.Column.TEXT, BinarySnapshot.Column.DICT,
+            BinarySnapshot.Column.TEXT, BinarySnapshot.Column.DICT, BinarySnapshot.Column.DICT,
+            BinarySnapshot.Column.DICT, BinarySnapshot.Column.DATE
+        },
+        item -> new String[]{item.getId(), item.getNama(), item.getKategori(), item.getMerk(),
+            item.getKondisi(), item.getLokasi(), item.getStatus(), item.getTanggalMasuk()},
+        f -> new InventoryItem(f[0], f[1], f[2], f[3], f[4], f[5], f[6], f[7]));
     
-    public static void saveInventoryData(ObservableList<InventoryItem> data) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CSV_FILE))) {
-            writer.println(CSV_HEADER);
-            for (InventoryItem item : data) {
-                writer.println(item.toCSV());
-            }
-            System.out.println("Data berhasil disimpan ke " + CSV_FILE);
-        } catch (IOException e) {
-            System.err.println("Error saving data: " + e.getMessage());
+    // Target write-behind: perubahan dari UI ditulis oleh WriteBehindPersister di thread terpisah
+    public static final WriteBehindPersister.Store<InventoryItem> WRITE_BEHIND = new WriteBehindPersister.Store<>(
+        "inventory", InventoryItem::getId, InventoryItem::toCSV,
+        CSVManager::writeInventoryChanges, JOURNAL::needsCompaction, CSVManager::saveInventoryData);
+    
+    // Snapshot lengkap - sekaligus compaction journal
+    public static boolean saveInventoryData(List<InventoryItem> data) {
+        // Tulis ke file sementara lalu rename atomik, file lama tetap utuh jika gagal
+        if (!SnapshotWriter.writeCsv(CSV_FILE, CSV_HEADER, data, InventoryItem::toCSV)) {
+            return false;
         }
+        System.out.println("Data berhasil disimpan ke " + CSV_FILE);
+        IdSequence.persist();
+        BINARY.write(data);
+        JOURNAL.truncate();
+        return true;
+    }
+    
+    // Tulis sekumpulan perubahan sekaligus (null = hapus); dipanggil dari thread write-behind
+    public static boolean writeInventoryChanges(Map<String, String> changes) {
+        boolean written = JOURNAL.appendAll(changes);
+        IdSequence.persist();
+        return written;
     }
     
     public static ObservableList<InventoryItem> loadInventoryData() {
@@ -26,31 +51,33 @@ public class CSVManager {
         if (!file.exists()) {
             // Create sample data if file doesn't exist
             createSampleData(data);
+            IdSequence.seedAll(data, InventoryItem::getId);
             saveInventoryData(data);
             return data;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(CSV_FILE))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue; // Skip header
-                }
-                
-                InventoryItem item = InventoryItem.fromCSV(line);
-                if (item != null) {
-                    data.add(item);
-                }
+        try {
+            List<InventoryItem> loaded = BINARY.isUpToDate(CSV_FILE) ? BINARY.read() : null;
+            if (loaded != null) {
+                data.addAll(loaded);
+                System.out.println("Data berhasil dimuat dari snapshot biner");
+            } else {
+                // Tokenizer RFC-4180 langsung ke factory record, header dilewati
+                loaded = new ArrayList<>();
+                CSVTokenizer.readFile(CSV_FILE, InventoryItem::fromRow, loaded);
+                data.addAll(loaded);
+                System.out.println("Data berhasil dimuat dari " + CSV_FILE);
+                BINARY.write(data);
             }
-            System.out.println("Data berhasil dimuat dari " + CSV_FILE);
         } catch (IOException e) {
             System.err.println("Error loading data: " + e.getMessage());
             createSampleData(data);
         }
         
+        // Terapkan perubahan yang belum di-compact ke snapshot
+        JOURNAL.replay(data, InventoryItem::getId, InventoryItem::fromCSV);
+        IdSequence.seedAll(data, InventoryItem::getId);
+        
         return data;
     }
     
@@ -69,33 +96,9 @@ public class CSVManager {
         ));
     }
     
-    // Category prefixes mapping
-    private static final Map<String, String> CATEGORY_PREFIXES = Map.of(
-        "Hardware", "HW",
-        "Software", "SW", 
-        "Aksesoris", "ACC",
-        "Networking", "NET",
-        "Furniture", "FUR"
-    );
-    
     public static String generateNewId(ObservableList<InventoryItem> data, String kategori) {
-        String prefix = CATEGORY_PREFIXES.getOrDefault(kategori, "GEN");
-        int maxId = 0;
-        
-        // Find the highest ID number for this category
-        for (InventoryItem item : data) {
-            String id = item.getId();
-            if (id.startsWith(prefix)) {
-                try {
-                    int numId = Integer.parseInt(id.substring(prefix.length()));
-                    maxId = Math.max(maxId, numId);
-                } catch (NumberFormatException e) {
-                    // Ignore invalid IDs
-                }
-            }
-        }
-        
-        return String.format("%s%04d", prefix, maxId + 1);
+        // High-water mark per prefix sudah diisi saat load, tidak perlu scan data
+        return IdSequence.next(Category.prefixOf(kategori));
     }
     
     // Overloaded method for backward compatibility
@@ -104,6 +107,6 @@ public class CSVManager {
     }
     
     public static String getCategoryPrefix(String kategori) {
-        return CATEGORY_PREFIXES.getOrDefault(kategori, "GEN");
+        return Category.prefixOf(kategori);
     }
 }
\ No newline at end of file
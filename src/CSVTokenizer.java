@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Tokenizer CSV (RFC-4180) yang dipakai bersama oleh semua jenis record.
+ * Membaca langsung dari buffer karakter, mendukung field ber-quote yang berisi
+ * koma, newline dan quote ganda (""), serta baris CRLF. Buffer field dan array
+ * field dipakai ulang antar baris sehingga parsing tidak membuat objek sementara
+ * selain String hasil akhirnya.
+ *
+ * Input byte (isi file) di-decode per window WINDOW_CHARS karakter ke buffer
+ * yang sama, bukan sekaligus, sehingga memori parsing sebanding dengan window dan
+ * record terpanjang, bukan ukuran file.
+ */
+public class CSVTokenizer {
+    private static final int WINDOW_CHARS = 64 * 1024;
+
+    private char[] buf;
+    private int limit;
+    private int pos;
+    private int mark = -1; // Awal field tanpa quote yang sedang dibaca, -1 jika tidak ada
+
+    // Sumber window berikutnya; null untuk input karakter atau setelah input habis
+    private ByteBuffer source;
+    private CharsetDecoder decoder;
+
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private final StringBuilder field = new StringBuilder(64);
+
+    public CSVTokenizer(CharBuffer input) {
+        if (input.hasArray()) {
+            this.buf = input.array();
+            this.pos = input.arrayOffset() + input.position();
+            this.limit = input.arrayOffset() + input.limit();
+        } else {
+            this.buf = new char[input.remaining()];
+            input.duplicate().get(buf);
+            this.pos = 0;
+            this.limit = buf.length;
+        }
+    }
+
+    // Untuk satu baris CSV (fromCSV); file dibaca lewat konstruktor ByteBuffer
+    public CSVTokenizer(String input) {
+        this(CharBuffer.wrap(input.toCharArray()));
+    }
+
+    // Byte UTF-8 yang di-decode bertahap saat dibaca; BOM di awal dilewati
+    public CSVTokenizer(ByteBuffer input) {
+        this.source = skipBom(input);
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buf = new char[Math.max(16, Math.min(WINDOW_CHARS, source.remaining()))];
+    }
+
+    /**
+     * Baca record berikutnya. Mengembalikan false jika input sudah habis.
+     * Baris kosong dilewati.
+     */
+    public boolean next() {
+        while (more() && (buf[pos] == '\n' || buf[pos] == '\r')) {
+            pos++;
+        }
+        if (pos >= limit) {
+            fieldCount = 0;
+            return false;
+        }
+
+        fieldCount = 0;
+        while (true) {
+            String value;
+            if (more() && buf[pos] == '"') {
+                value = readQuoted();
+            } else {
+                mark = pos;
+                while (more() && buf[pos] != ',' && buf[pos] != '\n' && buf[pos] != '\r') {
+                    pos++;
+                }
+                value = new String(buf, mark, pos - mark);
+                mark = -1;
+            }
+            addField(value);
+
+            if (more() && buf[pos] == ',') {
+                pos++;
+                continue;
+            }
+            // Akhir record: lewati CRLF / LF
+            if (more() && buf[pos] == '\r') pos++;
+            if (more() && buf[pos] == '\n') pos++;
+            return true;
+        }
+    }
+
+    // Masih ada karakter di pos; window berikutnya di-decode jika buffer habis
+    private boolean more() {
+        return pos < limit || fill();
+    }
+
+    private boolean fill() {
+        while (decoder != null) {
+            // Karakter sebelum pos (atau sebelum field yang sedang dibaca) sudah tidak dipakai
+            int keepFrom = mark >= 0 ? mark : pos;
+            if (keepFrom > 0) {
+                System.arraycopy(buf, keepFrom, buf, 0, limit - keepFrom);
+                limit -= keepFrom;
+                pos -= keepFrom;
+                if (mark >= 0) {
+                    mark = 0;
+                }
+            }
+            if (buf.length - limit < 2) {
+                buf = Arrays.copyOf(buf, buf.length * 2); // Satu field lebih panjang dari window
+            }
+
+            CharBuffer window = CharBuffer.wrap(buf, limit, buf.length - limit);
+            // Seluruh sisa input ada di source, jadi endOfInput selalu true
+            CoderResult result = decoder.decode(source, window, true);
+            if (result.isUnderflow()) {
+                decoder.flush(window);
+                decoder = null;
+                source = null;
+            }
+            int decoded = window.position() - limit;
+            limit = window.position();
+            if (decoded > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String readQuoted() {
+        field.setLength(0);
+        pos++; // Skip opening quote
+        while (more()) {
+            char c = buf[pos++];
+            if (c == '"') {
+                if (more() && buf[pos] == '"') {
+                    field.append('"');
+                    pos++;
+                } else {
+                    break;
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        // Toleransi: karakter setelah closing quote sebelum delimiter ikut dalam field
+        while (more() && buf[pos] != ',' && buf[pos] != '\n' && buf[pos] != '\r') {
+            field.append(buf[pos++]);
+        }
+        return field.toString();
+    }
+
+    private void addField(String value) {
+        if (fieldCount == fields.length) {
+            String[] grown = new String[fields.length * 2];
+            System.arraycopy(fields, 0, grown, 0, fields.length);
+            fields = grown;
+        }
+        fields[fieldCount++] = value;
+    }
+
+    public int size() {
+        return fieldCount;
+    }
+
+    public String get(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Baca file CSV, lewati header, lalu kirim setiap record ke factory. Record null
+     * (baris tidak valid) diabaikan.
+     */
+    public static <T> void readFile(String fileName, Function<CSVTokenizer, T> factory, List<T> out) throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(readBytes(fileName));
+        if (!tokenizer.next()) {
+            return; // File kosong
+        }
+        while (tokenizer.next()) {
+            T record = factory.apply(tokenizer);
+            if (record != null) {
+                out.add(record);
+            }
+        }
+    }
+
+    /**
+     * Isi file sebagai ByteBuffer heap; file sudah ditutup saat method kembali. File
+     * sengaja tidak di-map: di Windows mapping yang masih hidup sampai GC membuat rename
+     * snapshot baru ke file yang sama gagal.
+     */
+    static ByteBuffer readBytes(String fileName) throws IOException {
+        Path file = Paths.get(fileName);
+        long size = Files.size(file);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("File " + fileName + " terlalu besar untuk dibaca (" + size + " byte)");
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file));
+    }
+
+    // Lewati BOM UTF-8 jika ada (file yang disimpan dari Excel/Notepad)
+    private static ByteBuffer skipBom(ByteBuffer bytes) {
+        if (bytes.remaining() >= 3 && (bytes.get(bytes.position()) & 0xFF) == 0xEF
+                && (bytes.get(bytes.position() + 1) & 0xFF) == 0xBB
+                && (bytes.get(bytes.position() + 2) & 0xFF) == 0xBF) {
+            bytes.position(bytes.position() + 3);
+        }
+        return bytes;
+    }
+
+    // Quote field hanya jika berisi koma, quote atau newline
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return quote(value);
+            }
+        }
+        return value;
+    }
+
+    // Selalu quote field (format lama untuk kolom teks bebas)
+    public static String quote(String value) {
+        return "\"" + (value == null ? "" : value.replace("\"", "\"\"")) + "\"";
+    }
+}
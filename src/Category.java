@@ -0,0 +1,53 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Kategori inventaris beserta prefix ID-nya
+public enum Category {
+    HARDWARE("Hardware", "HW"),
+    SOFTWARE("Software", "SW"),
+    AKSESORIS("Aksesoris", "ACC"),
+    NETWORKING("Networking", "NET"),
+    FURNITURE("Furniture", "FUR");
+
+    // Prefix untuk kategori yang tidak dikenal
+    public static final String GENERIC_PREFIX = "GEN";
+
+    private static final Map<String, Category> BY_LABEL = new HashMap<>();
+    static {
+        for (Category value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+    private final String prefix;
+
+    Category(String label, String prefix) {
+        this.label = label;
+        this.prefix = prefix;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static Category fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+
+    public static String prefixOf(String label) {
+        Category category = fromLabel(label);
+        return category != null ? category.prefix : GENERIC_PREFIX;
+    }
+}
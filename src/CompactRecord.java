@@ -0,0 +1,126 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import javafx.beans.property.SimpleStringProperty;
+
+/**
+ * Dasar record ringkas (InventoryItem, BorrowRecord, MaintenanceRecord). Field disimpan
+ * sebagai nilai biasa: field bergaya enum di-intern, tanggal sebagai epoch day. Adapter
+ * property JavaFX hanya dibuat saat baris benar-benar ditampilkan di TableView
+ * (PropertyValueFactory memanggil xxxProperty()), sehingga baris yang tidak pernah
+ * tampil tidak membawa objek property sama sekali.
+ */
+public abstract class CompactRecord {
+    // Penanda tanggal kosong / tidak bisa di-parse
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Teks tanggal dipakai bersama antar record (banyak transaksi di hari yang sama)
+    private static final Map<Integer, String> DATE_TEXT = new ConcurrentHashMap<>();
+
+    // Satu array untuk semua adapter property, null sampai ada property yang diminta
+    private SimpleStringProperty[] properties;
+    // Store yang sedang memuat record ini (diset RecordStore saat add, dilepas saat remove)
+    private RecordStore<?> store;
+
+    // Field dengan sedikit nilai berbeda (status, kategori, lokasi, ...) cukup satu instance String
+    static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Epoch day dari teks yyyy-MM-dd, atau NO_DATE jika kosong/tidak valid.
+     * Teks yang tidak kembali sama persis (misal 2024-1-5) juga dianggap tidak valid
+     * agar pemanggil menyimpan teks mentahnya.
+     */
+    static int parseDate(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_DATE;
+        }
+        try {
+            LocalDate date = LocalDate.parse(text);
+            int epochDay = (int) date.toEpochDay();
+            return formatDate(epochDay).equals(text) ? epochDay : NO_DATE;
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+
+    // Teks mentah hanya disimpan jika tanggal tidak bisa diwakili epoch day
+    static String rawDate(String text, int epochDay) {
+        return epochDay == NO_DATE && text != null && !text.isEmpty() ? text : null;
+    }
+
+    static String formatDate(int epochDay) {
+        return DATE_TEXT.computeIfAbsent(epochDay, day -> LocalDate.ofEpochDay(day).toString());
+    }
+
+    static String dateText(int epochDay, String raw) {
+        if (raw != null) {
+            return raw;
+        }
+        return epochDay == NO_DATE ? "" : formatDate(epochDay);
+    }
+
+    static LocalDate toLocalDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    protected abstract int fieldCount();
+
+    /**
+     * Ambil (atau buat) adapter property untuk field. Perubahan dari sisi property
+     * (binding/edit sel) diteruskan ke setter record lewat sink.
+     */
+    protected SimpleStringProperty property(int field, String name, String value, Consumer<String> sink) {
+        if (properties == null) {
+            properties = new SimpleStringProperty[fieldCount()];
+        }
+        if (properties[field] == null) {
+            properties[field] = adapter(this, name, value, sink);
+        }
+        return properties[field];
+    }
+
+    /**
+     * Dipanggil setter setelah field berubah: perbarui adapter property jika sudah
+     * pernah dibuat, lalu beri tahu store (index, counter).
+     */
+    protected void updated(int field, String oldValue, String newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        if (properties != null && properties[field] != null) {
+            properties[field].set(newValue);
+        }
+        if (store != null) {
+            store.fireFieldChanged(this, field, oldValue, newValue);
+        }
+    }
+
+    void attachTo(RecordStore<?> store) {
+        this.store = store;
+    }
+
+    void detachFrom(RecordStore<?> store) {
+        if (this.store == store) {
+            this.store = null;
+        }
+    }
+
+    // Field ringkas tetap sumber datanya; adapter hanya meneruskan perubahan ke setter
+    private static SimpleStringProperty adapter(Object bean, String name, String value, Consumer<String> sink) {
+        return new SimpleStringProperty(bean, name, value) {
+            @Override
+            protected void invalidated() {
+                sink.accept(get());
+            }
+        };
+    }
+}
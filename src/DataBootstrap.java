@@ -0,0 +1,188 @@
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline boot asinkron. Ketiga store (inventaris, peminjaman, maintenance) dimuat
+ * bersamaan di thread latar, dipasangi RecordStore dan DirtyTracker, lalu status
+ * inventaris diselaraskan, maintenance rutin yang jatuh tempo dibuat dan index (pencarian,
+ * sekunder, tanggal, peminjam) dibangun.
+ * Perubahan dari tahap boot tercatat sebagai baris kotor dan disimpan oleh pemanggil.
+ * Hasilnya dikembalikan sebagai satu Result, sehingga pemanggil bisa mempublikasikan
+ * semua list ke thread JavaFX sekaligus. Lama setiap tahap dicatat untuk log startup.
+ */
+public class DataBootstrap {
+
+    public static class Result {
+        private final ObservableList<InventoryItem> inventory;
+        private final ObservableList<BorrowRecord> borrows;
+        private final ObservableList<MaintenanceRecord> maintenance;
+        private final RecordStore<InventoryItem> inventoryStore;
+        private final RecordStore<BorrowRecord> borrowStore;
+        private final RecordStore<MaintenanceRecord> maintenanceStore;
+        private final DirtyTracker<InventoryItem> inventoryChanges;
+        private final DirtyTracker<BorrowRecord> borrowChanges;
+        private final DirtyTracker<MaintenanceRecord> maintenanceChanges;
+        private TrigramIndex inventorySearch;
+        private SecondaryIndex inventoryIndex;
+        private DateRangeIndex<BorrowRecord> borrowDates;
+        private DateRangeIndex<MaintenanceRecord> maintenanceDates;
+        private BorrowerIndex borrowers;
+        private ActiveBorrowIndex activeBorrows;
+        private OverdueTracker overdue;
+        private MaintenanceScheduler scheduler;
+        private LocalDate scheduledThrough; // Tanggal jadwal dijalankan saat boot, belum disimpan
+        private final Map<String, Long> timings;
+        private final long startNanos;
+
+        private Result(ObservableList<InventoryItem> inventory, ObservableList<BorrowRecord> borrows,
+                       ObservableList<MaintenanceRecord> maintenance, Map<String, Long> timings, long startNanos) {
+            this.inventory = inventory;
+            this.borrows = borrows;
+            this.maintenance = maintenance;
+            this.inventoryStore = new RecordStore<>(inventory);
+            this.borrowStore = new RecordStore<>(borrows);
+            this.maintenanceStore = new RecordStore<>(maintenance);
+            this.inventoryChanges = new DirtyTracker<>(inventoryStore, CSVManager.WRITE_BEHIND, InventoryItem.ID);
+            this.borrowChanges = new DirtyTracker<>(borrowStore, BorrowManager.WRITE_BEHIND, BorrowRecord.BORROW_ID);
+            this.maintenanceChanges = new DirtyTracker<>(maintenanceStore, MaintenanceManager.WRITE_BEHIND,
+                MaintenanceRecord.MAINTENANCE_ID);
+            this.timings = timings;
+            this.startNanos = startNanos;
+        }
+
+        public ObservableList<InventoryItem> getInventory() { return inventory; }
+        public ObservableList<BorrowRecord> getBorrows() { return borrows; }
+        public ObservableList<MaintenanceRecord> getMaintenance() { return maintenance; }
+        public RecordStore<InventoryItem> getInventoryStore() { return inventoryStore; }
+        public RecordStore<BorrowRecord> getBorrowStore() { return borrowStore; }
+        public RecordStore<MaintenanceRecord> getMaintenanceStore() { return maintenanceStore; }
+        public DirtyTracker<InventoryItem> getInventoryChanges() { return inventoryChanges; }
+        public DirtyTracker<BorrowRecord> getBorrowChanges() { return borrowChanges; }
+        public DirtyTracker<MaintenanceRecord> getMaintenanceChanges() { return maintenanceChanges; }
+        public TrigramIndex getInventorySearch() { return inventorySearch; }
+        public SecondaryIndex getInventoryIndex() { return inventoryIndex; }
+        public DateRangeIndex<BorrowRecord> getBorrowDates() { return borrowDates; }
+        public DateRangeIndex<MaintenanceRecord> getMaintenanceDates() { return maintenanceDates; }
+        public BorrowerIndex getBorrowers() { return borrowers; }
+        public ActiveBorrowIndex getActiveBorrows() { return activeBorrows; }
+        public OverdueTracker getOverdue() { return overdue; }
+        public MaintenanceScheduler getScheduler() { return scheduler; }
+        public LocalDate getScheduledThrough() { return scheduledThrough; }
+
+        // Jalankan satu tahap tambahan (misal jadwal maintenance) dan catat lamanya
+        public void time(String stage, Runnable work) {
+            timed(timings, stage, () -> {
+                work.run();
+                return null;
+            });
+        }
+
+        // Lama per tahap dalam milidetik, urut selesai
+        public Map<String, Long> getTimings() {
+            synchronized (timings) {
+                return new LinkedHashMap<>(timings);
+            }
+        }
+
+        // Waktu sejak boot dimulai, dalam milidetik
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        public String describeTimings() {
+            StringBuilder text = new StringBuilder();
+            getTimings().forEach((stage, millis) ->
+                text.append(stage).append(' ').append(millis).append(" ms | "));
+            return text.append("total ").append(getElapsedMillis()).append(" ms").toString();
+        }
+    }
+
+    /**
+     * Muat ketiga store secara paralel di executor, lalu selaraskan status inventaris.
+     * Future selesai di thread executor; pemanggil UI harus pindah ke thread JavaFX
+     * (Platform.runLater) sebelum memasang list ke tampilan.
+     */
+    public static CompletableFuture<Result> load(Executor executor) {
+        long start = System.nanoTime();
+        Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        CompletableFuture<ObservableList<InventoryItem>> inventory = CompletableFuture.supplyAsync(
+            () -> timed(timings, "inventaris", CSVManager::loadInventoryData), executor);
+        CompletableFuture<ObservableList<BorrowRecord>> borrows = CompletableFuture.supplyAsync(
+            () -> timed(timings, "peminjaman", BorrowManager::loadBorrowData), executor);
+        CompletableFuture<ObservableList<MaintenanceRecord>> maintenance = CompletableFuture.supplyAsync(
+            () -> timed(timings, "maintenance", MaintenanceManager::loadMaintenanceData), executor);
+
+        return CompletableFuture.allOf(inventory, borrows, maintenance).thenApplyAsync(ignored -> {
+            Result result = new Result(inventory.join(), borrows.join(), maintenance.join(), timings, start);
+            result.time("rekonsiliasi status", () -> reconcile(result));
+            result.time("jadwal maintenance", () -> schedule(result));
+            // Index pencarian dibangun di sini agar thread JavaFX tidak menunggu
+            result.time("index pencarian", () -> result.inventorySearch = new TrigramIndex(result.inventoryStore));
+            result.time("index sekunder", () -> result.inventoryIndex = new SecondaryIndex(result.inventoryStore));
+            result.time("index tanggal", () -> {
+                result.borrowDates = DateRangeIndex.forBorrows(result.borrowStore);
+                result.maintenanceDates = DateRangeIndex.forMaintenance(result.maintenanceStore);
+            });
+            result.time("index peminjam", () -> {
+                result.borrowers = new BorrowerIndex(result.borrowStore);
+                result.activeBorrows = new ActiveBorrowIndex(result.borrowStore);
+            });
+            return result;
+        }, executor);
+    }
+
+    // Thread pool daemon untuk boot, agar tidak menahan JVM saat aplikasi ditutup
+    public static ExecutorService newLoaderExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "data-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void reconcile(Result result) {
+        // Satu pass per list, lalu satu pass inventaris (bukan scan borrow/maintenance per item)
+        int changed = StatusReconciler.reconcile(result.inventory, result.borrows, result.maintenance);
+
+        // Heap tenggat dibangun sekali; pemeriksaan berikutnya hanya mengambil yang baru lewat
+        result.overdue = new OverdueTracker(result.borrowStore);
+        BorrowManager.getOverdueItems(result.overdue);
+
+        // Baris yang berubah sudah tercatat di DirtyTracker, disimpan oleh pemanggil
+        if (changed > 0) {
+            System.out.println(changed + " status inventaris diperbarui");
+        }
+    }
+
+    // Putar jadwal dari terakhir dijalankan sampai hari ini, termasuk hari yang terlewat
+    private static void schedule(Result result) {
+        LocalDate today = LocalDate.now();
+        result.scheduler = new MaintenanceScheduler(result.inventoryStore, MaintenanceScheduler.loadLastRun(today));
+        int created = result.scheduler.runDue(today, result.maintenance).size();
+        result.scheduledThrough = today;
+        if (created > 0) {
+            System.out.println(created + " maintenance rutin dijadwalkan");
+        }
+    }
+
+    private static <T> T timed(Map<String, Long> timings, String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timings.put(stage, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
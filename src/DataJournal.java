@@ -0,0 +1,156 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Journal append-only untuk perubahan data. Setiap mutasi (tambah, ubah, hapus)
+ * ditulis sebagai satu baris kecil, lalu secara berkala digabung (compaction)
+ * kembali ke snapshot CSV oleh manager pemiliknya.
+ *
+ * Format baris: P,&lt;key&gt;,&lt;baris CSV&gt; untuk put dan D,&lt;key&gt; untuk delete.
+ * Karakter newline di dalam baris CSV di-escape agar satu entry tetap satu baris.
+ */
+public class DataJournal {
+    private static final int DEFAULT_COMPACT_THRESHOLD = 500;
+
+    private final String journalFile;
+    private final int compactThreshold;
+    private int entryCount;
+
+    public DataJournal(String journalFile) {
+        this(journalFile, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public DataJournal(String journalFile, int compactThreshold) {
+        this.journalFile = journalFile;
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * Tulis sekumpulan perubahan dalam satu kali buka file. Value null berarti delete,
+     * selain itu baris CSV untuk put. Urutan entry map dipertahankan. Mengembalikan false
+     * jika journal gagal ditulis.
+     */
+    public synchronized boolean appendAll(Map<String, String> changes) {
+        if (changes.isEmpty()) {
+            return true;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile, true), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                if (change.getValue() != null) {
+                    writer.write("P," + change.getKey() + "," + escape(change.getValue()));
+                } else {
+                    writer.write("D," + change.getKey());
+                }
+                writer.write('\n');
+                entryCount++;
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing journal " + journalFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean needsCompaction() {
+        return entryCount >= compactThreshold;
+    }
+
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    // Dipanggil setelah snapshot lengkap berhasil ditulis
+    public synchronized void truncate() {
+        File file = new File(journalFile);
+        if (file.exists() && !file.delete()) {
+            System.err.println("Error truncating journal " + journalFile);
+            return;
+        }
+        entryCount = 0;
+    }
+
+    /**
+     * Replay journal di atas data snapshot. Put dengan key yang sudah ada menggantikan
+     * record pada posisi yang sama, key baru ditambahkan di akhir, delete menghapus record.
+     * Mengembalikan jumlah entry yang diterapkan.
+     */
+    public synchronized <T> int replay(List<T> data, Function<T, String> keyOf, Function<String, T> parser) {
+        File file = new File(journalFile);
+        entryCount = 0;
+        if (!file.exists()) {
+            return 0;
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        List<T> working = new ArrayList<>(data);
+        for (int i = 0; i < working.size(); i++) {
+            positions.put(keyOf.apply(working.get(i)), i);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() < 3 || line.charAt(1) != ',') {
+                    continue; // Skip baris rusak (misal tulisan terakhir terpotong)
+                }
+                char op = line.charAt(0);
+                int keyEnd = line.indexOf(',', 2);
+                String key = keyEnd < 0 ? line.substring(2) : line.substring(2, keyEnd);
+
+                if (op == 'P' && keyEnd > 0) {
+                    T record = parser.apply(unescape(line.substring(keyEnd + 1)));
+                    if (record == null) {
+                        continue;
+                    }
+                    Integer pos = positions.get(key);
+                    if (pos != null) {
+                        working.set(pos, record);
+                    } else {
+                        positions.put(key, working.size());
+                        working.add(record);
+                    }
+                    entryCount++;
+                } else if (op == 'D') {
+                    Integer pos = positions.remove(key);
+                    if (pos != null) {
+                        working.set(pos, null);
+                    }
+                    entryCount++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error replaying journal " + journalFile + ": " + e.getMessage());
+        }
+
+        if (entryCount > 0) {
+            working.removeIf(Objects::isNull);
+            data.clear();
+            data.addAll(working);
+            System.out.println(entryCount + " perubahan dari " + journalFile + " diterapkan");
+        }
+        return entryCount;
+    }
+
+    private static String escape(String row) {
+        return row.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n");
+    }
+
+    private static String unescape(String row) {
+        if (row.indexOf('\\') < 0) {
+            return row;
+        }
+        StringBuilder sb = new StringBuilder(row.length());
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (c == '\\' && i + 1 < row.length()) {
+                char next = row.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,119 @@
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Index tanggal untuk laporan per periode. Untuk setiap field tanggal (misal tanggal pinjam,
+ * tanggal kembali, tanggal lapor, tanggal selesai) record dikelompokkan per epoch day di
+ * TreeMap, sehingga laporan periode langsung melompat ke rentang hari yang diminta tanpa
+ * scan dan tanpa parse ulang teks tanggal. Diperbarui lewat RecordStore; record dengan
+ * tanggal kosong atau tidak valid tidak masuk index field tersebut.
+ */
+public class DateRangeIndex<T extends CompactRecord> implements RecordStore.Listener<T> {
+
+    // Epoch day satu field tanggal record, CompactRecord.NO_DATE jika kosong
+    public interface DayOf<T> {
+        int dayOf(T record, int field);
+    }
+
+    private final DayOf<T> dayOf;
+    private final Map<Integer, TreeMap<Integer, Set<T>>> byField = new HashMap<>();
+
+    public DateRangeIndex(RecordStore<T> store, DayOf<T> dayOf, int... fields) {
+        this.dayOf = dayOf;
+        for (int field : fields) {
+            byField.put(field, new TreeMap<>());
+        }
+        store.addListener(this);
+    }
+
+    // Tanggal pinjam dan tanggal harus kembali
+    public static DateRangeIndex<BorrowRecord> forBorrows(RecordStore<BorrowRecord> store) {
+        return new DateRangeIndex<>(store, BorrowRecord::epochDay, BorrowRecord.BORROW_DATE, BorrowRecord.RETURN_DATE);
+    }
+
+    // Tanggal lapor dan tanggal selesai
+    public static DateRangeIndex<MaintenanceRecord> forMaintenance(RecordStore<MaintenanceRecord> store) {
+        return new DateRangeIndex<>(store, MaintenanceRecord::epochDay,
+            MaintenanceRecord.REPORTED_DATE, MaintenanceRecord.COMPLETED_DATE);
+    }
+
+    @Override
+    public synchronized void added(T record) {
+        for (Map.Entry<Integer, TreeMap<Integer, Set<T>>> entry : byField.entrySet()) {
+            add(entry.getValue(), dayOf.dayOf(record, entry.getKey()), record);
+        }
+    }
+
+    @Override
+    public synchronized void removed(T record) {
+        for (Map.Entry<Integer, TreeMap<Integer, Set<T>>> entry : byField.entrySet()) {
+            remove(entry.getValue(), dayOf.dayOf(record, entry.getKey()), record);
+        }
+    }
+
+    @Override
+    public synchronized void fieldChanged(T record, int field, String oldValue, String newValue) {
+        TreeMap<Integer, Set<T>> days = byField.get(field);
+        if (days == null) {
+            return;
+        }
+        // Hanya nilai lama yang perlu di-parse; nilai baru sudah tersimpan sebagai epoch day
+        remove(days, CompactRecord.parseDate(oldValue), record);
+        add(days, dayOf.dayOf(record, field), record);
+    }
+
+    /**
+     * Record dengan tanggal field di antara from dan to (inklusif), urut tanggal lalu
+     * urutan masuk. from/to null berarti rentang terbuka di sisi tersebut.
+     */
+    public synchronized List<T> range(int field, LocalDate from, LocalDate to) {
+        List<T> result = new ArrayList<>();
+        for (Set<T> bucket : days(field, from, to).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    // Jumlah record dalam rentang, tanpa membentuk list
+    public synchronized int count(int field, LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Set<T> bucket : days(field, from, to).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    private NavigableMap<Integer, Set<T>> days(int field, LocalDate from, LocalDate to) {
+        TreeMap<Integer, Set<T>> days = byField.get(field);
+        if (days == null) {
+            throw new IllegalArgumentException("Field tanggal tidak terindex: " + field);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Collections.emptyNavigableMap();
+        }
+        NavigableMap<Integer, Set<T>> view = days;
+        if (from != null) {
+            view = view.tailMap((int) from.toEpochDay(), true);
+        }
+        if (to != null) {
+            view = view.headMap((int) to.toEpochDay(), true);
+        }
+        return view;
+    }
+
+    private void add(TreeMap<Integer, Set<T>> days, int day, T record) {
+        if (day != CompactRecord.NO_DATE) {
+            days.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(record);
+        }
+    }
+
+    private void remove(TreeMap<Integer, Set<T>> days, int day, T record) {
+        if (day == CompactRecord.NO_DATE) {
+            return;
+        }
+        Set<T> bucket = days.get(day);
+        if (bucket != null && bucket.remove(record) && bucket.isEmpty()) {
+            days.remove(day);
+        }
+    }
+}
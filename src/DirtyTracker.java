@@ -0,0 +1,81 @@
+import java.util.*;
+
+/**
+ * Pencatat baris yang berubah untuk satu store. Didaftarkan ke RecordStore, sehingga
+ * setiap setter, tambah dan hapus record menandai key-nya kotor. Saat disimpan, hanya
+ * baris kotor yang dikirim ke journal; store yang tidak berubah tidak ditulis sama sekali.
+ * Jika hampir semua baris berubah, snapshot penuh lebih murah daripada journal per baris.
+ */
+public class DirtyTracker<T extends CompactRecord> implements RecordStore.Listener<T> {
+    private final WriteBehindPersister.Store<T> target;
+    private final int keyField;
+    private final Map<String, T> dirty = new LinkedHashMap<>();
+    private final Set<String> removed = new LinkedHashSet<>();
+
+    public DirtyTracker(RecordStore<T> store, WriteBehindPersister.Store<T> target, int keyField) {
+        this.target = target;
+        this.keyField = keyField;
+        store.addListener(this);
+        clear(); // Record yang sudah ada saat didaftarkan bukan perubahan
+    }
+
+    @Override
+    public synchronized void added(T record) {
+        String key = target.keyOf(record);
+        removed.remove(key);
+        dirty.put(key, record);
+    }
+
+    @Override
+    public synchronized void removed(T record) {
+        String key = target.keyOf(record);
+        dirty.remove(key);
+        removed.add(key);
+    }
+
+    @Override
+    public synchronized void fieldChanged(T record, int field, String oldValue, String newValue) {
+        if (field == keyField) {
+            // ID berubah: baris lama dihapus, baris baru ditulis
+            dirty.remove(oldValue);
+            removed.add(oldValue);
+            removed.remove(newValue);
+            dirty.put(newValue, record);
+        } else {
+            dirty.put(target.keyOf(record), record);
+        }
+    }
+
+    public synchronized boolean isDirty() {
+        return !dirty.isEmpty() || !removed.isEmpty();
+    }
+
+    public synchronized int getDirtyCount() {
+        return dirty.size() + removed.size();
+    }
+
+    public synchronized void clear() {
+        dirty.clear();
+        removed.clear();
+    }
+
+    /**
+     * Kirim baris kotor ke persister lalu kosongkan tanda. Jika lebih dari separuh
+     * baris berubah, atau penulisan sebelumnya untuk store ini gagal, yang dikirim
+     * snapshot penuh. Mengembalikan jumlah baris yang dikirim.
+     */
+    public synchronized int flushTo(WriteBehindPersister persister, List<T> data) {
+        int count = getDirtyCount();
+        boolean retry = persister.hasFailed(target);
+        if (count == 0 && !retry) {
+            return 0;
+        }
+        if (retry || count > data.size() / 2) {
+            persister.saveAll(target, data);
+        } else {
+            persister.putAll(target, data, dirty.values(), removed);
+        }
+        clear();
+        return count;
+    }
+}
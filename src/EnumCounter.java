@@ -0,0 +1,83 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Counter live per nilai enum (status, kategori, prioritas, ...) untuk satu field record.
+ * Didaftarkan ke RecordStore, sehingga setiap tambah/hapus record dan setiap perubahan
+ * field langsung memperbarui hitungan. Membaca jumlah cukup O(1), tanpa stream ulang.
+ */
+public class EnumCounter<T, E extends Enum<E>> implements RecordStore.Listener<T> {
+    private final Class<E> type;
+    private final Map<E, LongAdder> counts;
+    private final LongAdder unknown = new LongAdder(); // Label yang tidak dikenal enum
+    private final int field;
+    private final Function<T, String> valueOf;
+    private final Function<String, E> fromLabel;
+
+    public EnumCounter(Class<E> type, int field, Function<T, String> valueOf, Function<String, E> fromLabel) {
+        this.type = type;
+        this.field = field;
+        this.valueOf = valueOf;
+        this.fromLabel = fromLabel;
+        // Semua key diisi di awal: map tidak pernah berubah struktur, aman dibaca dari thread lain
+        this.counts = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            counts.put(key, new LongAdder());
+        }
+    }
+
+    private LongAdder adder(String label) {
+        E key = fromLabel.apply(label);
+        return key != null ? counts.get(key) : unknown;
+    }
+
+    @Override
+    public void added(T record) {
+        adder(valueOf.apply(record)).increment();
+    }
+
+    @Override
+    public void removed(T record) {
+        adder(valueOf.apply(record)).decrement();
+    }
+
+    @Override
+    public void fieldChanged(T record, int changedField, String oldValue, String newValue) {
+        if (changedField == field) {
+            adder(oldValue).decrement();
+            adder(newValue).increment();
+        }
+    }
+
+    public long get(E key) {
+        return counts.get(key).sum();
+    }
+
+    public long getUnknown() {
+        return unknown.sum();
+    }
+
+    // Jumlah per konstanta enum (urut deklarasi), termasuk yang 0
+    public Map<E, Long> snapshot() {
+        Map<E, Long> result = new EnumMap<>(type);
+        counts.forEach((key, adder) -> result.put(key, adder.sum()));
+        return result;
+    }
+
+    // Hitungan satu pass untuk subset tanpa counter live (misal record dalam periode laporan)
+    public static <T, E extends Enum<E>> Map<E, Long> tally(Iterable<T> records, Class<E> type, Function<T, E> classify) {
+        Map<E, Long> result = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            result.put(key, 0L);
+        }
+        for (T record : records) {
+            E key = classify.apply(record);
+            if (key != null) {
+                result.merge(key, 1L, Long::sum);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,240 @@
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Filter tabel inventaris di luar thread JavaFX. Input pencarian di-debounce, query
+ * dievaluasi di executor latar terhadap snapshot list, dan query yang sudah digantikan
+ * ketikan baru dibatalkan lewat nomor generasi. Filter status/kategori diambil dari irisan
+ * SecondaryIndex, teks dari kandidat TrigramIndex: query teks hanya memeriksa kandidat
+ * posting list, bukan seluruh snapshot. Hasil dipasang ke list tabel dalam
+ * satu setAll, bersama jumlah per status dari pass yang sama.
+ */
+public class FilterEngine {
+    public static final long DEFAULT_DEBOUNCE_MS = 150;
+
+    // Nilai pilihan "semua" di combo box filter
+    public static final String ALL_STATUS = "Semua Status";
+    public static final String ALL_CATEGORIES = "Semua Kategori";
+
+    public static final class Query {
+        private final String text;
+        private final String status;
+        private final String kategori;
+
+        // status/kategori null atau "Semua ..." berarti tidak difilter
+        public Query(String text, String status, String kategori) {
+            this.text = text != null ? text : "";
+            this.status = ALL_STATUS.equals(status) ? null : status;
+            this.kategori = ALL_CATEGORIES.equals(kategori) ? null : kategori;
+        }
+    }
+
+    public static final class Result {
+        private final List<InventoryItem> items;
+        private final Map<ItemStatus, Long> statusCounts;
+
+        private Result(List<InventoryItem> items, Map<ItemStatus, Long> statusCounts) {
+            this.items = items;
+            this.statusCounts = statusCounts;
+        }
+
+        public int getTotal() {
+            return items.size();
+        }
+
+        public long count(ItemStatus status) {
+            return statusCounts.get(status);
+        }
+    }
+
+    // Salinan source untuk satu evaluasi, dengan posisi tiap item untuk mengurutkan kandidat index
+    private static final class Snapshot {
+        private final List<InventoryItem> items;
+        private Map<InventoryItem, Integer> positions; // Dibangun sekali di thread executor
+
+        private Snapshot(List<InventoryItem> items) {
+            this.items = items;
+        }
+
+        Integer positionOf(InventoryItem item) {
+            if (positions == null) {
+                positions = new IdentityHashMap<>(items.size() * 2);
+                for (int i = 0; i < items.size(); i++) {
+                    positions.put(items.get(i), i);
+                }
+            }
+            return positions.get(item);
+        }
+    }
+
+    private final ObservableList<InventoryItem> source;
+    private final TrigramIndex index;
+    private final SecondaryIndex secondary;
+    private final ScheduledExecutorService executor;
+    private final boolean searchId;
+    private final long debounceMillis;
+    private final ObservableList<InventoryItem> results = FXCollections.observableArrayList();
+    private final AtomicLong generation = new AtomicLong();
+    private final ListChangeListener<InventoryItem> sourceListener;
+    private Snapshot snapshot; // Dibuang setiap kali isi source berubah
+    private ScheduledFuture<?> scheduled;
+    private Query lastQuery = new Query("", null, null);
+    private Consumer<Result> onResult;
+
+    /**
+     * index dan secondary boleh null (semua item diperiksa). searchId menentukan apakah
+     * ID ikut dicari selain nama, kategori, merk dan lokasi.
+     */
+    public FilterEngine(ObservableList<InventoryItem> source, TrigramIndex index, SecondaryIndex secondary,
+                        ScheduledExecutorService executor, boolean searchId, long debounceMillis) {
+        this.source = source;
+        this.index = index;
+        this.secondary = secondary;
+        this.executor = executor;
+        this.searchId = searchId;
+        this.debounceMillis = debounceMillis;
+        // Weak: view yang sudah ditutup tidak tertahan oleh list inventaris
+        this.sourceListener = change -> {
+            snapshot = null;
+            schedule(lastQuery, debounceMillis);
+        };
+        source.addListener(new WeakListChangeListener<>(sourceListener));
+    }
+
+    // Executor satu thread daemon yang bisa dipakai bersama beberapa FilterEngine
+    public static ScheduledExecutorService newExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "filter-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // List hasil filter untuk TableView; hanya berubah di thread JavaFX
+    public ObservableList<InventoryItem> getResults() {
+        return results;
+    }
+
+    // Dipanggil di thread JavaFX setiap kali hasil baru dipasang
+    public void setOnResult(Consumer<Result> onResult) {
+        this.onResult = onResult;
+    }
+
+    // Untuk ketikan: ditunda sampai input berhenti selama debounce
+    public void submit(Query query) {
+        schedule(query, debounceMillis);
+    }
+
+    // Untuk pilihan combo box: langsung dievaluasi
+    public void submitNow(Query query) {
+        schedule(query, 0);
+    }
+
+    private void schedule(Query query, long delayMillis) {
+        lastQuery = query;
+        long current = generation.incrementAndGet();
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        if (snapshot == null) {
+            snapshot = new Snapshot(new ArrayList<>(source));
+        }
+        Snapshot items = snapshot;
+        scheduled = executor.schedule(() -> evaluate(current, items, query), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluate(long current, Snapshot snapshot, Query query) {
+        if (generation.get() != current) {
+            return;
+        }
+        Result result = filter(current, snapshot, query);
+        if (result == null) {
+            return; // Sudah ada query yang lebih baru
+        }
+        Platform.runLater(() -> {
+            if (generation.get() != current) {
+                return;
+            }
+            results.setAll(result.items);
+            if (onResult != null) {
+                onResult.accept(result);
+            }
+        });
+    }
+
+    // Hasil query terhadap snapshot, atau null jika dibatalkan oleh query yang lebih baru
+    private Result filter(long current, Snapshot snapshot, Query query) {
+        String lowerCaseFilter = query.text.toLowerCase();
+        Set<InventoryItem> candidates = index != null && !lowerCaseFilter.isEmpty() ? index.search(query.text) : null;
+        List<InventoryItem> items = snapshot.items;
+        if (secondary != null && (query.status != null || query.kategori != null)) {
+            // Irisan bitset status x kategori, bukan scan seluruh snapshot
+            items = secondary.select(query.kategori, null, query.status);
+        }
+        if (candidates != null && candidates.size() < items.size()) {
+            // Hanya kandidat posting list yang diperiksa, diurutkan kembali sesuai urutan tabel.
+            // Item yang belum/tidak lagi ada di snapshot dilewati.
+            List<InventoryItem> ordered = new ArrayList<>(candidates.size());
+            for (InventoryItem item : candidates) {
+                if (snapshot.positionOf(item) != null) {
+                    ordered.add(item);
+                }
+            }
+            ordered.sort(Comparator.comparingInt(snapshot::positionOf));
+            items = ordered;
+        }
+
+        List<InventoryItem> matched = new ArrayList<>();
+        Map<ItemStatus, Long> counts = new EnumMap<>(ItemStatus.class);
+        for (ItemStatus status : ItemStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if ((i & 4095) == 0 && generation.get() != current) {
+                return null;
+            }
+            InventoryItem item = items.get(i);
+            if (matches(item, query, lowerCaseFilter)) {
+                matched.add(item);
+                ItemStatus status = item.getStatusValue();
+                if (status != null) {
+                    counts.merge(status, 1L, Long::sum);
+                }
+            }
+        }
+
+        return new Result(matched, counts);
+    }
+
+    private boolean matches(InventoryItem item, Query query, String lowerCaseFilter) {
+        // Search text filter (kandidat trigram tetap diverifikasi sebagai substring)
+        if (!lowerCaseFilter.isEmpty()) {
+            if (!item.getNama().toLowerCase().contains(lowerCaseFilter) &&
+                !item.getKategori().toLowerCase().contains(lowerCaseFilter) &&
+                !item.getMerk().toLowerCase().contains(lowerCaseFilter) &&
+                !item.getLokasi().toLowerCase().contains(lowerCaseFilter) &&
+                !(searchId && item.getId().toLowerCase().contains(lowerCaseFilter))) {
+                return false;
+            }
+        }
+
+        // Status filter
+        if (query.status != null && !query.status.equals(item.getStatus())) {
+            return false;
+        }
+
+        // Category filter
+        return query.kategori == null || query.kategori.equals(item.getKategori());
+    }
+}
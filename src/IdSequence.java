@@ -0,0 +1,109 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Alokator ID per prefix (HW, SW, ACC, NET, FUR, GEN, BRW, MNT). Setiap prefix
+ * menyimpan nomor tertinggi yang pernah dipakai (high-water mark), diisi sekali
+ * saat data dimuat lalu dinaikkan secara atomik, sehingga pembuatan ID baru O(1)
+ * dan aman dipanggil dari beberapa thread.
+ *
+ * High-water mark disimpan ke sequences.properties bersama data, supaya ID dari
+ * record yang sudah dihapus tidak dipakai ulang setelah aplikasi dibuka lagi.
+ */
+public class IdSequence {
+    private static final String SEQUENCE_FILE = "sequences.properties";
+
+    private static final Map<String, AtomicInteger> HIGH_WATER = new ConcurrentHashMap<>();
+    private static final AtomicBoolean DIRTY = new AtomicBoolean();
+
+    static {
+        loadPersisted();
+    }
+
+    // Ambil ID berikutnya untuk prefix, misal next("HW") -> HW0012
+    public static String next(String prefix) {
+        int number = counter(prefix).incrementAndGet();
+        DIRTY.set(true);
+        return String.format("%s%04d", prefix, number);
+    }
+
+    // Catat ID yang sudah ada (dipanggil saat load) agar alokasi berikutnya tidak bentrok
+    public static void seed(String id) {
+        if (id == null) {
+            return;
+        }
+        int i = 0;
+        while (i < id.length() && Character.isLetter(id.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == id.length()) {
+            return;
+        }
+        try {
+            int number = Integer.parseInt(id.substring(i));
+            int before = counter(id.substring(0, i)).getAndAccumulate(number, Math::max);
+            if (number > before) {
+                DIRTY.set(true);
+            }
+        } catch (NumberFormatException e) {
+            // Ignore invalid IDs
+        }
+    }
+
+    public static <T> void seedAll(Collection<T> records, Function<T, String> idOf) {
+        for (T record : records) {
+            seed(idOf.apply(record));
+        }
+    }
+
+    private static AtomicInteger counter(String prefix) {
+        return HIGH_WATER.computeIfAbsent(prefix, p -> new AtomicInteger());
+    }
+
+    // Simpan high-water mark jika ada perubahan sejak penyimpanan terakhir
+    public static synchronized void persist() {
+        if (!DIRTY.getAndSet(false)) {
+            return;
+        }
+        Properties props = new Properties();
+        for (Map.Entry<String, AtomicInteger> entry : new TreeMap<>(HIGH_WATER).entrySet()) {
+            props.setProperty(entry.getKey(), String.valueOf(entry.getValue().get()));
+        }
+        try (SnapshotWriter writer = new SnapshotWriter(SEQUENCE_FILE)) {
+            StringWriter text = new StringWriter();
+            props.store(text, "High-water mark ID per prefix");
+            writer.write(text.toString());
+            writer.commit();
+        } catch (IOException e) {
+            DIRTY.set(true); // Coba lagi pada penyimpanan berikutnya
+            System.err.println("Error saving " + SEQUENCE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static void loadPersisted() {
+        File file = new File(SEQUENCE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        Properties props = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            props.load(reader);
+        } catch (IOException e) {
+            System.err.println("Error loading " + SEQUENCE_FILE + ": " + e.getMessage());
+            return;
+        }
+        for (String prefix : props.stringPropertyNames()) {
+            try {
+                int number = Integer.parseInt(props.getProperty(prefix).trim());
+                counter(prefix).accumulateAndGet(number, Math::max);
+            } catch (NumberFormatException e) {
+                // Ignore invalid entries
+            }
+        }
+    }
+}
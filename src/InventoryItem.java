@@ -1,70 +1,97 @@
+import java.time.LocalDate;
 import javafx.beans.property.SimpleStringProperty;
 
-public class InventoryItem {
-    private SimpleStringProperty id;
-    private SimpleStringProperty nama;
-    private SimpleStringProperty kategori;
-    private SimpleStringProperty merk;
-    private SimpleStringProperty kondisi;
-    private SimpleStringProperty lokasi;
-    private SimpleStringProperty status;
-    private SimpleStringProperty tanggalMasuk;
-    
-    public InventoryItem(String id, String nama, String kategori, String merk, 
+public class InventoryItem extends CompactRecord {
+    // Index field (adapter property dan event perubahan)
+    public static final int ID = 0, NAMA = 1, KATEGORI = 2, MERK = 3, KONDISI = 4,
+        LOKASI = 5, STATUS = 6, TANGGAL_MASUK = 7;
+    private static final int FIELD_COUNT = 8;
+
+    private String id;
+    private String nama;
+    private String kategori;
+    private String merk;
+    private String kondisi;
+    private String lokasi;
+    private String status;
+    private int tanggalMasuk;
+    private String tanggalMasukRaw; // Hanya jika tanggal tidak berformat yyyy-MM-dd
+
+    public InventoryItem(String id, String nama, String kategori, String merk,
                        String kondisi, String lokasi, String status, String tanggalMasuk) {
-        this.id = new SimpleStringProperty(id);
-        this.nama = new SimpleStringProperty(nama);
-        this.kategori = new SimpleStringProperty(kategori);
-        this.merk = new SimpleStringProperty(merk);
-        this.kondisi = new SimpleStringProperty(kondisi);
-        this.lokasi = new SimpleStringProperty(lokasi);
-        this.status = new SimpleStringProperty(status);
-        this.tanggalMasuk = new SimpleStringProperty(tanggalMasuk);
+        this.id = id;
+        this.nama = nama;
+        this.kategori = intern(kategori);
+        this.merk = merk;
+        this.kondisi = intern(kondisi);
+        this.lokasi = intern(lokasi);
+        this.status = intern(status);
+        this.tanggalMasuk = parseDate(tanggalMasuk);
+        this.tanggalMasukRaw = rawDate(tanggalMasuk, this.tanggalMasuk);
     }
-    
+
+    @Override
+    protected int fieldCount() { return FIELD_COUNT; }
+
     // Getters
-    public String getId() { return id.get(); }
-    public String getNama() { return nama.get(); }
-    public String getKategori() { return kategori.get(); }
-    public String getMerk() { return merk.get(); }
-    public String getKondisi() { return kondisi.get(); }
-    public String getLokasi() { return lokasi.get(); }
-    public String getStatus() { return status.get(); }
-    public String getTanggalMasuk() { return tanggalMasuk.get(); }
-    
-    // Property getters for TableView
-    public SimpleStringProperty idProperty() { return id; }
-    public SimpleStringProperty namaProperty() { return nama; }
-    public SimpleStringProperty kategoriProperty() { return kategori; }
-    public SimpleStringProperty merkProperty() { return merk; }
-    public SimpleStringProperty kondisiProperty() { return kondisi; }
-    public SimpleStringProperty lokasiProperty() { return lokasi; }
-    public SimpleStringProperty statusProperty() { return status; }
-    public SimpleStringProperty tanggalMasukProperty() { return tanggalMasuk; }
-    
+    public String getId() { return id; }
+    public String getNama() { return nama; }
+    public String getKategori() { return kategori; }
+    public String getMerk() { return merk; }
+    public String getKondisi() { return kondisi; }
+    public String getLokasi() { return lokasi; }
+    public String getStatus() { return status; }
+    public String getTanggalMasuk() { return dateText(tanggalMasuk, tanggalMasukRaw); }
+
+    // Typed getters - null jika kosong/tidak dikenal
+    public LocalDate getTanggalMasukDate() { return toLocalDate(tanggalMasuk); }
+    public ItemStatus getStatusValue() { return ItemStatus.fromLabel(status); }
+    public Category getKategoriValue() { return Category.fromLabel(kategori); }
+
+    // Property getters for TableView (dibuat saat pertama kali diminta)
+    public SimpleStringProperty idProperty() { return property(ID, "id", id, this::setId); }
+    public SimpleStringProperty namaProperty() { return property(NAMA, "nama", nama, this::setNama); }
+    public SimpleStringProperty kategoriProperty() { return property(KATEGORI, "kategori", kategori, this::setKategori); }
+    public SimpleStringProperty merkProperty() { return property(MERK, "merk", merk, this::setMerk); }
+    public SimpleStringProperty kondisiProperty() { return property(KONDISI, "kondisi", kondisi, this::setKondisi); }
+    public SimpleStringProperty lokasiProperty() { return property(LOKASI, "lokasi", lokasi, this::setLokasi); }
+    public SimpleStringProperty statusProperty() { return property(STATUS, "status", status, this::setStatus); }
+    public SimpleStringProperty tanggalMasukProperty() { return property(TANGGAL_MASUK, "tanggalMasuk", getTanggalMasuk(), this::setTanggalMasuk); }
+
     // Setters
-    public void setId(String id) { this.id.set(id); }
-    public void setNama(String nama) { this.nama.set(nama); }
-    public void setKategori(String kategori) { this.kategori.set(kategori); }
-    public void setMerk(String merk) { this.merk.set(merk); }
-    public void setKondisi(String kondisi) { this.kondisi.set(kondisi); }
-    public void setLokasi(String lokasi) { this.lokasi.set(lokasi); }
-    public void setStatus(String status) { this.status.set(status); }
-    public void setTanggalMasuk(String tanggalMasuk) { this.tanggalMasuk.set(tanggalMasuk); }
-    
-    // Convert to CSV format
+    public void setId(String id) { String old = this.id; this.id = id; updated(ID, old, this.id); }
+    public void setNama(String nama) { String old = this.nama; this.nama = nama; updated(NAMA, old, this.nama); }
+    public void setKategori(String kategori) { String old = this.kategori; this.kategori = intern(kategori); updated(KATEGORI, old, this.kategori); }
+    public void setMerk(String merk) { String old = this.merk; this.merk = merk; updated(MERK, old, this.merk); }
+    public void setKondisi(String kondisi) { String old = this.kondisi; this.kondisi = intern(kondisi); updated(KONDISI, old, this.kondisi); }
+    public void setLokasi(String lokasi) { String old = this.lokasi; this.lokasi = intern(lokasi); updated(LOKASI, old, this.lokasi); }
+    public void setStatus(String status) { String old = this.status; this.status = intern(status); updated(STATUS, old, this.status); }
+    public void setTanggalMasuk(String tanggalMasuk) {
+        String old = getTanggalMasuk();
+        this.tanggalMasuk = parseDate(tanggalMasuk);
+        this.tanggalMasukRaw = rawDate(tanggalMasuk, this.tanggalMasuk);
+        updated(TANGGAL_MASUK, old, getTanggalMasuk());
+    }
+
+    // Convert to CSV format (field teks di-quote jika berisi koma/quote)
     public String toCSV() {
-        return String.join(",", getId(), getNama(), getKategori(), getMerk(), 
-                          getKondisi(), getLokasi(), getStatus(), getTanggalMasuk());
+        return String.join(",", getId(), CSVTokenizer.escape(getNama()), CSVTokenizer.escape(getKategori()),
+                          CSVTokenizer.escape(getMerk()), CSVTokenizer.escape(getKondisi()),
+                          CSVTokenizer.escape(getLokasi()), getStatus(), getTanggalMasuk());
     }
-    
+
     // Create from CSV line
     public static InventoryItem fromCSV(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length >= 8) {
-            return new InventoryItem(parts[0], parts[1], parts[2], parts[3], 
-                                   parts[4], parts[5], parts[6], parts[7]);
+        CSVTokenizer row = new CSVTokenizer(csvLine);
+        return row.next() ? fromRow(row) : null;
+    }
+
+    // Create langsung dari record tokenizer (tanpa array sementara)
+    public static InventoryItem fromRow(CSVTokenizer row) {
+        if (row.size() >= 8) {
+            return new InventoryItem(row.get(0), row.get(1), row.get(2), row.get(3),
+                                   row.get(4), row.get(5), row.get(6), row.get(7));
         }
         return null;
     }
-}
\ No newline at end of file
+}
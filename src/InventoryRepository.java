@@ -0,0 +1,74 @@
+import java.util.*;
+import javafx.collections.ObservableList;
+
+/**
+ * Index hash ID -> item untuk list inventaris. Index selalu sinkron dengan
+ * ObservableList lewat RecordStore (tambah, hapus, setAll, dan perubahan ID),
+ * sehingga pencarian item per ID tidak perlu scan seluruh list di FX thread.
+ */
+public class InventoryRepository implements RecordStore.Listener<InventoryItem> {
+    private final ObservableList<InventoryItem> items;
+    private final Map<String, InventoryItem> byId = new HashMap<>();
+    // ID yang pernah muncul lebih dari sekali (CSV diedit manual); jarang, tapi jangan sampai hilang dari index
+    private final Set<String> duplicateIds = new HashSet<>();
+
+    public InventoryRepository(RecordStore<InventoryItem> store) {
+        this.items = store.getItems();
+        store.addListener(this);
+    }
+
+    @Override
+    public void added(InventoryItem item) {
+        index(item.getId(), item);
+    }
+
+    @Override
+    public void removed(InventoryItem item) {
+        unindex(item.getId(), item);
+    }
+
+    @Override
+    public void fieldChanged(InventoryItem item, int field, String oldValue, String newValue) {
+        if (field == InventoryItem.ID) {
+            unindex(oldValue, item);
+            index(newValue, item);
+        }
+    }
+
+    private void index(String id, InventoryItem item) {
+        if (id != null) {
+            InventoryItem previous = byId.putIfAbsent(id, item);
+            if (previous != null && previous != item) {
+                duplicateIds.add(id);
+            }
+        }
+    }
+
+    private void unindex(String id, InventoryItem item) {
+        // Hanya hapus jika entry memang menunjuk ke item ini; seperti findFirst, item pertama yang dipakai
+        if (id == null || byId.get(id) != item) {
+            return;
+        }
+        byId.remove(id);
+        if (duplicateIds.contains(id)) {
+            for (InventoryItem other : items) {
+                if (other != item && id.equals(other.getId())) {
+                    byId.put(id, other);
+                    break;
+                }
+            }
+        }
+    }
+
+    public InventoryItem findById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public boolean contains(String id) {
+        return findById(id) != null;
+    }
+
+    public ObservableList<InventoryItem> getItems() {
+        return items;
+    }
+}
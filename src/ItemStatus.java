@@ -0,0 +1,37 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Status item inventaris
+public enum ItemStatus {
+    TERSEDIA("Tersedia"),
+    DIPINJAM("Dipinjam"),
+    MAINTENANCE("Maintenance");
+
+    private static final Map<String, ItemStatus> BY_LABEL = new HashMap<>();
+    static {
+        for (ItemStatus value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+
+    ItemStatus(String label) {
+        this.label = label;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static ItemStatus fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Counter live per teks bebas (lokasi, kondisi) untuk satu field record. Sama seperti
+ * EnumCounter tetapi key-nya tidak diketahui di awal, jadi disimpan di ConcurrentHashMap.
+ */
+public class LabelCounter<T> implements RecordStore.Listener<T> {
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final int field;
+    private final Function<T, String> valueOf;
+
+    public LabelCounter(int field, Function<T, String> valueOf) {
+        this.field = field;
+        this.valueOf = valueOf;
+    }
+
+    private LongAdder adder(String label) {
+        return counts.computeIfAbsent(label != null ? label : "", key -> new LongAdder());
+    }
+
+    @Override
+    public void added(T record) {
+        adder(valueOf.apply(record)).increment();
+    }
+
+    @Override
+    public void removed(T record) {
+        adder(valueOf.apply(record)).decrement();
+    }
+
+    @Override
+    public void fieldChanged(T record, int changedField, String oldValue, String newValue) {
+        if (changedField == field) {
+            adder(oldValue).decrement();
+            adder(newValue).increment();
+        }
+    }
+
+    public long get(String label) {
+        LongAdder adder = counts.get(label != null ? label : "");
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // Semua label dengan jumlah > 0, urut alfabet
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((label, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                result.put(label, count);
+            }
+        });
+        return result;
+    }
+}
@@ -1,4 +1,5 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -19,7 +20,9 @@ import java.util.*;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class Main extends Application {
     private Stage primaryStage;
@@ -27,10 +30,32 @@ public class Main extends Application {
     private String currentRole;
     private VBox currentMainContent;
     private ObservableList<InventoryItem> inventoryData;
+    private InventoryRepository inventoryRepository;
+    private TrigramIndex inventorySearch;
+    private SecondaryIndex inventoryIndex;
+    private DateRangeIndex<BorrowRecord> borrowDates;
+    private DateRangeIndex<MaintenanceRecord> maintenanceDates;
+    private BorrowerIndex borrowerIndex;
+    private ActiveBorrowIndex activeBorrows;
+    private OverdueTracker overdueTracker;
+    private MaintenanceScheduler maintenanceScheduler;
+    private StoreCounters counters;
+    private ReportCache reportCache;
+    private DirtyTracker<InventoryItem> inventoryChanges;
+    private DirtyTracker<BorrowRecord> borrowChanges;
+    private DirtyTracker<MaintenanceRecord> maintenanceChanges;
     private ObservableList<BorrowRecord> borrowData;
     private ObservableList<MaintenanceRecord> maintenanceData;
     private TableView<InventoryItem> inventoryTable;
-    private FilteredList<InventoryItem> filteredData;
+    private FilterEngine inventoryFilter;
+    private Button loginButton;
+    private Label loadingLabel;
+    
+    // Penyimpanan di thread terpisah; delay maksimum bisa diatur lewat -DwriteBehind.maxDelayMs
+    private final WriteBehindPersister persister = new WriteBehindPersister(
+        Long.getLong("writeBehind.maxDelayMs", WriteBehindPersister.DEFAULT_MAX_DELAY_MS));
+    // Thread latar untuk evaluasi filter tabel (dipakai bersama semua view) dan cek jadwal harian
+    private final ScheduledExecutorService filterExecutor = FilterEngine.newExecutor();
     
     // Data pengguna (username:password:role)
     private Map<String, String[]> users = new HashMap<>();
@@ -38,98 +63,136 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
+        persister.setOnFailure(error -> Platform.runLater(() -> showAlert("Error",
+            "Perubahan gagal disimpan (" + error + ").\nData akan disimpan ulang secara penuh pada perubahan berikutnya.",
+            Alert.AlertType.ERROR)));
         initializeUsers();
-        loadAllData();
-        checkMaintenanceSchedule(); // Check for routine maintenance
-        showLoginPage();
+        showLoginPage(); // Tampil langsung, login aktif setelah data siap
+        loadAllData(null);
     }
     
-    private void initializeUsers() {
-        users.put("admin", new String[]{"admin123", "Admin"});
-        users.put("petugas", new String[]{"petugas123", "Petugas Lab"});
+    @Override
+    public void stop() {
+        // Tulis perubahan yang masih antri (dan ulangi store yang gagal) sebelum aplikasi keluar
+        persister.setOnFailure(null); // Alert tidak bisa tampil lagi, kegagalan dilaporkan di bawah
+        if (inventoryChanges != null) {
+            saveChanges();
+        }
+        int pendingWrites = persister.getPendingWrites();
+        persister.close();
+        filterExecutor.shutdownNow();
+        if (persister.getFailedWrites() > 0) {
+            System.err.println(persister.getFailedWrites() + " perubahan gagal disimpan saat menutup aplikasi: "
+                + persister.getLastError());
+        } else if (pendingWrites > 0) {
+            System.out.println(pendingWrites + " perubahan tersimpan saat menutup aplikasi");
+        }
     }
     
-    private void loadAllData() {
-        inventoryData = CSVManager.loadInventoryData();
-        borrowData = BorrowManager.loadBorrowData();
-        maintenanceData = MaintenanceManager.loadMaintenanceData();
-        filteredData = new FilteredList<>(inventoryData, p -> true);
-        
-        // Update inventory status based on borrowing and maintenance
-        updateInventoryStatus();
+    // Simpan hanya store dan baris yang berubah sejak penyimpanan terakhir
+    private void saveChanges() {
+        inventoryChanges.flushTo(persister, inventoryData);
+        borrowChanges.flushTo(persister, borrowData);
+        maintenanceChanges.flushTo(persister, maintenanceData);
     }
     
-    private void updateInventoryStatus() {
-        for (InventoryItem item : inventoryData) {
-            // Check if borrowed
-            if (BorrowManager.isItemBorrowed(borrowData, item.getId())) {
-                item.setStatus("Dipinjam");
-            }
-            // Check if under maintenance
-            else if (MaintenanceManager.isItemUnderMaintenance(maintenanceData, item.getId())) {
-                item.setStatus("Maintenance");
-            }
-            // If not borrowed or maintenance, set as available (if condition is good)
-            else if ("Baik".equals(item.getKondisi())) {
-                item.setStatus("Tersedia");
+    // Simpan perubahan lalu tandai jadwal sampai day selesai, setelah maintenance rutin ada di disk
+    private void saveScheduleRun(LocalDate day) {
+        saveChanges();
+        CompletableFuture.runAsync(() -> {
+            persister.flush();
+            if (!persister.hasFailed(MaintenanceManager.WRITE_BEHIND)) {
+                MaintenanceScheduler.persistLastRun(day);
             }
+        }, filterExecutor);
+    }
+    
+    private void runDailyChecks(List<InventoryItem> dueItems, LocalDate day) {
+        List<MaintenanceRecord> created = MaintenanceManager.createRoutineMaintenance(maintenanceData, dueItems, day);
+        checkOverdue();
+        saveScheduleRun(day);
+        if (!created.isEmpty() && currentMainContent != null) {
+            refreshCurrentContent();
         }
-        
-        // Check for overdue items
-        BorrowManager.getOverdueItems(borrowData);
-        
-        // Save updated status
-        CSVManager.saveInventoryData(inventoryData);
     }
     
-    private void checkMaintenanceSchedule() {
-        List<InventoryItem> itemsNeedingMaintenance = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        
-        for (InventoryItem item : inventoryData) {
-            try {
-                LocalDate itemDate = LocalDate.parse(item.getTanggalMasuk());
-                long monthsSinceAcquisition = ChronoUnit.MONTHS.between(itemDate, today);
-                
-                // Check if item needs routine maintenance (every 6 months)
-                if (monthsSinceAcquisition > 0 && monthsSinceAcquisition % 6 == 0) {
-                    // Check if maintenance already scheduled for this period
-                    boolean alreadyScheduled = maintenanceData.stream()
-                        .anyMatch(m -> m.getInventoryId().equals(item.getId()) && 
-                                 m.getIssueType().equals("Maintenance Rutin") &&
-                                 m.getReportedDate().equals(today.toString()));
-                    
-                    if (!alreadyScheduled && !item.getStatus().equals("Maintenance")) {
-                        itemsNeedingMaintenance.add(item);
+    // Tandai peminjaman yang baru lewat tenggat; murah jika tidak ada (hanya melihat puncak heap)
+    private void checkOverdue() {
+        if (overdueTracker != null && !BorrowManager.getOverdueItems(overdueTracker).isEmpty()) {
+            saveChanges();
+        }
+    }
+    
+    private void initializeUsers() {
+        users.put("admin", new String[]{"admin123", "Admin"});
+        users.put("petugas", new String[]{"petugas123", "Petugas Lab"});
+    }
+    
+    // Muat data di thread latar; onReady dijalankan di thread JavaFX setelah data terpasang
+    private void loadAllData(Runnable onReady) {
+        ExecutorService loader = DataBootstrap.newLoaderExecutor();
+        // Perubahan yang masih antri harus sudah di disk sebelum file dibaca ulang
+        CompletableFuture.runAsync(persister::flush, loader)
+            .thenCompose(ignored -> DataBootstrap.load(loader))
+            .whenComplete((result, error) -> {
+                loader.shutdown();
+                Platform.runLater(() -> {
+                    if (error != null) {
+                        System.err.println("Error loading data: " + error.getMessage());
+                        if (loadingLabel != null) {
+                            loadingLabel.setText("Gagal memuat data");
+                        }
+                        showAlert("Error", "Gagal memuat data: " + error.getMessage(), Alert.AlertType.ERROR);
+                        return;
                     }
-                }
-            } catch (Exception e) {
-                // Skip items with invalid dates
-            }
+                    publishData(result);
+                    System.out.println("Data siap: " + result.describeTimings());
+                    if (onReady != null) {
+                        onReady.run();
+                    }
+                });
+            });
+    }
+    
+    // Pasang ketiga list sekaligus (dipanggil di thread JavaFX)
+    private void publishData(DataBootstrap.Result result) {
+        inventoryData = result.getInventory();
+        borrowData = result.getBorrows();
+        maintenanceData = result.getMaintenance();
+        
+        // Hub perubahan per list: index ID, counter live dan baris kotor ikut setiap mutasi
+        inventoryRepository = new InventoryRepository(result.getInventoryStore());
+        inventorySearch = result.getInventorySearch();
+        inventoryIndex = result.getInventoryIndex();
+        borrowDates = result.getBorrowDates();
+        maintenanceDates = result.getMaintenanceDates();
+        borrowerIndex = result.getBorrowers();
+        activeBorrows = result.getActiveBorrows();
+        overdueTracker = result.getOverdue();
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.stop(); // Jadwal dari data sebelum dimuat ulang
         }
-        
-        // Create automatic maintenance records
-        for (InventoryItem item : itemsNeedingMaintenance) {
-            MaintenanceRecord autoMaintenance = new MaintenanceRecord(
-                MaintenanceManager.generateNewMaintenanceId(maintenanceData),
-                item.getId(),
-                item.getNama(),
-                "Maintenance Rutin",
-                "Sedang",
-                "Sistem Otomatis",
-                "Maintenance rutin terjadwal (setiap 6 bulan)",
-                today.toString(),
-                null,
-                "Menunggu Penanganan"
-            );
-            
-            maintenanceData.add(autoMaintenance);
-            item.setStatus("Maintenance");
+        maintenanceScheduler = result.getScheduler();
+        // Hari baru saat aplikasi tetap terbuka: maintenance rutin dan keterlambatan diperiksa
+        maintenanceScheduler.start(filterExecutor, (dueItems, day) -> Platform.runLater(() -> runDailyChecks(dueItems, day)));
+        counters = new StoreCounters(result.getInventoryStore(), result.getBorrowStore(), result.getMaintenanceStore());
+        // Laporan tetap tersimpan antar pembukaan dialog sampai data berubah
+        reportCache = new ReportCache(result.getInventoryStore(), result.getBorrowStore(), result.getMaintenanceStore());
+        inventoryChanges = result.getInventoryChanges();
+        borrowChanges = result.getBorrowChanges();
+        maintenanceChanges = result.getMaintenanceChanges();
+        inventoryFilter = new FilterEngine(inventoryData, inventorySearch, inventoryIndex, filterExecutor, false,
+            FilterEngine.DEFAULT_DEBOUNCE_MS);
+        inventoryFilter.submitNow(new FilterEngine.Query("", null, null));
+        
+        // Simpan perubahan dari tahap boot (rekonsiliasi status, maintenance rutin)
+        saveScheduleRun(result.getScheduledThrough());
+        
+        if (loginButton != null) {
+            loginButton.setDisable(false);
         }
-        
-        if (!itemsNeedingMaintenance.isEmpty()) {
-            MaintenanceManager.saveMaintenanceData(maintenanceData);
-            CSVManager.saveInventoryData(inventoryData);
+        if (loadingLabel != null) {
+            loadingLabel.setText("Data siap (" + result.getElapsedMillis() + " ms)");
         }
     }
     
@@ -170,7 +233,8 @@ public class Main extends Application {
         passwordField.setPrefHeight(35);
         passwordField.setStyle("-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-color: #BDC3C7;");
         
-        Button loginButton = new Button("Login");
+        loginButton = new Button("Login");
+        loginButton.setDisable(inventoryData == null); // Aktif setelah data selesai dimuat
         loginButton.setPrefWidth(250);
         loginButton.setPrefHeight(40);
         loginButton.setStyle("-fx-background-color: #3498DB; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 5;");
@@ -190,7 +254,11 @@ public class Main extends Application {
         // Enter key support
         passwordField.setOnAction(e -> loginButton.fire());
         
-        formBox.getChildren().addAll(loginLabel, usernameField, passwordField, loginButton);
+        loadingLabel = new Label(inventoryData == null ? "Memuat data..." : "");
+        loadingLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 11));
+        loadingLabel.setTextFill(Color.web("#7F8C8D"));
+        
+        formBox.getChildren().addAll(loginLabel, usernameField, passwordField, loginButton, loadingLabel);
         loginContainer.getChildren().addAll(titleLabel, subtitleLabel, formBox);
         
         // Background gradient
@@ -256,9 +324,7 @@ public class Main extends Application {
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
         // Maintenance notification
-        long pendingMaintenance = maintenanceData.stream()
-            .filter(m -> "Menunggu Penanganan".equals(m.getStatus()) || "Dalam Proses".equals(m.getStatus()))
-            .count();
+        long pendingMaintenance = counters.getOpenMaintenance();
         
         if (pendingMaintenance > 0) {
             Label notificationLabel = new Label("🔔 " + pendingMaintenance + " maintenance pending");
@@ -380,7 +446,7 @@ public class Main extends Application {
         searchBox.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
         
         TextField searchField = new TextField();
-        searchField.setPromptText("Cari berdasarkan nama, kategori, atau merk...");
+        searchField.setPromptText("Cari berdasarkan nama, kategori, merk, atau lokasi...");
         searchField.setPrefWidth(300);
         searchField.setStyle("-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-color: #BDC3C7;");
         
@@ -428,11 +494,14 @@ public class Main extends Application {
         
         searchContainer.getChildren().addAll(searchLabel, searchBox, new Separator(), statsBox);
         
-        // Create filtered data for availability checking
-        FilteredList<InventoryItem> availabilityFilteredData = new FilteredList<>(inventoryData, p -> true);
+        // Filter berjalan di thread latar; hasil dan statistik datang bersamaan
+        FilterEngine availabilityFilter = new FilterEngine(inventoryData, inventorySearch, inventoryIndex, filterExecutor, true,
+            FilterEngine.DEFAULT_DEBOUNCE_MS);
+        availabilityFilter.setOnResult(result ->
+            updateAvailabilityStatistics(result, totalLabel, availableLabel, borrowedLabel, maintenanceLabel));
         
         // Table
-        TableView<InventoryItem> table = createAvailabilityTable(availabilityFilteredData);
+        TableView<InventoryItem> table = createAvailabilityTable(availabilityFilter.getResults());
         
         VBox tableContainer = new VBox(10);
         tableContainer.setStyle("-fx-background-color: white; -fx-background-radius: 10; -fx-padding: 15;");
@@ -445,44 +514,11 @@ public class Main extends Application {
         tableContainer.getChildren().addAll(tableLabel, table);
         
         // Filter functionality
-        Runnable updateFilter = () -> {
-            availabilityFilteredData.setPredicate(item -> {
-                // Search text filter
-                String searchText = searchField.getText();
-                if (searchText != null && !searchText.isEmpty()) {
-                    String lowerCaseFilter = searchText.toLowerCase();
-                    if (!item.getNama().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getKategori().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getMerk().toLowerCase().contains(lowerCaseFilter) &&
-                        !item.getId().toLowerCase().contains(lowerCaseFilter)) {
-                        return false;
-                    }
-                }
-                
-                // Status filter
-                String statusValue = statusFilter.getValue();
-                if (statusValue != null && !statusValue.equals("Semua Status")) {
-                    if (!item.getStatus().equals(statusValue)) {
-                        return false;
-                    }
-                }
-                
-                // Category filter
-                String categoryValue = categoryFilter.getValue();
-                if (categoryValue != null && !categoryValue.equals("Semua Kategori")) {
-                    if (!item.getKategori().equals(categoryValue)) {
-                        return false;
-                    }
-                }
-                
-                return true;
-            });
-            
-            // Update statistics
-            updateAvailabilityStatistics(availabilityFilteredData, totalLabel, availableLabel, borrowedLabel, maintenanceLabel);
-        };
+        Runnable updateFilter = () -> availabilityFilter.submitNow(
+            new FilterEngine.Query(searchField.getText(), statusFilter.getValue(), categoryFilter.getValue()));
         
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> updateFilter.run());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> availabilityFilter.submit(
+            new FilterEngine.Query(newValue, statusFilter.getValue(), categoryFilter.getValue())));
         statusFilter.setOnAction(e -> updateFilter.run());
         categoryFilter.setOnAction(e -> updateFilter.run());
         resetButton.setOnAction(e -> {
@@ -499,7 +535,7 @@ public class Main extends Application {
         return availabilityContent;
     }
     
-    private TableView<InventoryItem> createAvailabilityTable(FilteredList<InventoryItem> data) {
+    private TableView<InventoryItem> createAvailabilityTable(ObservableList<InventoryItem> data) {
         TableView<InventoryItem> table = new TableView<>();
         table.setItems(data);
         table.setPrefHeight(400);
@@ -564,16 +600,12 @@ public class Main extends Application {
         return table;
     }
     
-    private void updateAvailabilityStatistics(FilteredList<InventoryItem> data, Label totalLabel, Label availableLabel, Label borrowedLabel, Label maintenanceLabel) {
-        int total = data.size();
-        long available = data.stream().filter(item -> "Tersedia".equals(item.getStatus())).count();
-        long borrowed = data.stream().filter(item -> "Dipinjam".equals(item.getStatus())).count();
-        long maintenance = data.stream().filter(item -> "Maintenance".equals(item.getStatus())).count();
-        
-        totalLabel.setText("Total: " + total);
-        availableLabel.setText("Tersedia: " + available);
-        borrowedLabel.setText("Dipinjam: " + borrowed);
-        maintenanceLabel.setText("Maintenance: " + maintenance);
+    private void updateAvailabilityStatistics(FilterEngine.Result result, Label totalLabel, Label availableLabel, Label borrowedLabel, Label maintenanceLabel) {
+        // Jumlah per status sudah dihitung di pass filter yang sama
+        totalLabel.setText("Total: " + result.getTotal());
+        availableLabel.setText("Tersedia: " + result.count(ItemStatus.TERSEDIA));
+        borrowedLabel.setText("Dipinjam: " + result.count(ItemStatus.DIPINJAM));
+        maintenanceLabel.setText("Maintenance: " + result.count(ItemStatus.MAINTENANCE));
     }
     
     // REPORT CONTENT - No longer popup
@@ -648,10 +680,10 @@ public class Main extends Application {
         
         // Summary statistics
         VBox statsBox = new VBox(10);
-        long totalItems = inventoryData.size();
-        long availableItems = inventoryData.stream().filter(item -> "Tersedia".equals(item.getStatus())).count();
-        long borrowedItems = inventoryData.stream().filter(item -> "Dipinjam".equals(item.getStatus())).count();
-        long maintenanceItems = inventoryData.stream().filter(item -> "Maintenance".equals(item.getStatus())).count();
+        long totalItems = counters.getInventoryTotal();
+        long availableItems = counters.count(ItemStatus.TERSEDIA);
+        long borrowedItems = counters.count(ItemStatus.DIPINJAM);
+        long maintenanceItems = counters.count(ItemStatus.MAINTENANCE);
         
         Label statsLabel = new Label(String.format(
             "Total Item: %d | Tersedia: %d | Dipinjam: %d | Maintenance: %d",
@@ -660,6 +692,12 @@ public class Main extends Application {
         statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
         statsLabel.setTextFill(Color.web("#34495E"));
         
+        Label breakdownLabel = new Label(
+            "Per Kategori: " + StoreCounters.format(counters.byCategory()) + "\n" +
+            "Per Lokasi: " + StoreCounters.format(counters.byLokasi()));
+        breakdownLabel.setFont(Font.font("Arial", 12));
+        breakdownLabel.setTextFill(Color.web("#7F8C8D"));
+        
         // Table with all inventory data
         TableView<InventoryItem> reportTable = new TableView<>();
         reportTable.setItems(inventoryData);
@@ -699,7 +737,7 @@ public class Main extends Application {
         
         reportTable.getColumns().addAll(idCol, namaCol, kategoriCol, merkCol, kondisiCol, lokasiCol, statusCol, tanggalCol);
         
-        displayArea.getChildren().addAll(titleLabel, statsLabel, new Separator(), reportTable);
+        displayArea.getChildren().addAll(titleLabel, statsLabel, breakdownLabel, new Separator(), reportTable);
     }
     
 private void showBorrowingReport(VBox displayArea) {
@@ -723,10 +761,10 @@ private void showBorrowingReport(VBox displayArea) {
     headerBox.getChildren().addAll(titleLabel, spacer, printReportButton);
     
     // Summary statistics
-    long totalBorrows = borrowData.size();
-    long activeBorrows = borrowData.stream().filter(b -> "Dipinjam".equals(b.getStatus())).count();
-    long overdueBorrows = borrowData.stream().filter(b -> "Terlambat".equals(b.getStatus())).count();
-    long returnedBorrows = borrowData.stream().filter(b -> "Dikembalikan".equals(b.getStatus())).count();
+    long totalBorrows = counters.getBorrowTotal();
+    long activeBorrows = counters.count(BorrowStatus.DIPINJAM);
+    long overdueBorrows = counters.count(BorrowStatus.TERLAMBAT);
+    long returnedBorrows = counters.count(BorrowStatus.DIKEMBALIKAN);
     
     Label statsLabel = new Label(String.format(
         "Total Peminjaman: %d | Aktif: %d | Terlambat: %d | Dikembalikan: %d",
@@ -735,6 +773,10 @@ private void showBorrowingReport(VBox displayArea) {
     statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
     statsLabel.setTextFill(Color.web("#34495E"));
     
+    Label breakdownLabel = new Label("Per Tipe Peminjam: " + StoreCounters.format(counters.byBorrowerType()));
+    breakdownLabel.setFont(Font.font("Arial", 12));
+    breakdownLabel.setTextFill(Color.web("#7F8C8D"));
+    
     // Table with borrowing data
     TableView<BorrowRecord> reportTable = new TableView<>();
     reportTable.setItems(borrowData);
@@ -770,7 +812,7 @@ private void showBorrowingReport(VBox displayArea) {
     
     reportTable.getColumns().addAll(idCol, itemCol, borrowerCol, typeCol, borrowDateCol, returnDateCol, statusCol);
     
-    displayArea.getChildren().addAll(headerBox, statsLabel, new Separator(), reportTable);
+    displayArea.getChildren().addAll(headerBox, statsLabel, breakdownLabel, new Separator(), reportTable);
 }
     
    private void showMaintenanceReport(VBox displayArea) {
@@ -794,10 +836,10 @@ private void showBorrowingReport(VBox displayArea) {
     headerBox.getChildren().addAll(titleLabel, spacer, printReportButton);
     
     // Summary statistics
-    long totalMaintenance = maintenanceData.size();
-    long pendingMaintenance = maintenanceData.stream().filter(m -> "Menunggu Penanganan".equals(m.getStatus())).count();
-    long inProgressMaintenance = maintenanceData.stream().filter(m -> "Dalam Proses".equals(m.getStatus())).count();
-    long completedMaintenance = maintenanceData.stream().filter(m -> "Selesai".equals(m.getStatus())).count();
+    long totalMaintenance = counters.getMaintenanceTotal();
+    long pendingMaintenance = counters.count(MaintenanceStatus.MENUNGGU_PENANGANAN);
+    long inProgressMaintenance = counters.count(MaintenanceStatus.DALAM_PROSES);
+    long completedMaintenance = counters.count(MaintenanceStatus.SELESAI);
     
     Label statsLabel = new Label(String.format(
         "Total Maintenance: %d | Pending: %d | Dalam Proses: %d | Selesai: %d",
@@ -806,6 +848,10 @@ private void showBorrowingReport(VBox displayArea) {
     statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
     statsLabel.setTextFill(Color.web("#34495E"));
     
+    Label breakdownLabel = new Label("Per Prioritas: " + StoreCounters.format(counters.byPriority()));
+    breakdownLabel.setFont(Font.font("Arial", 12));
+    breakdownLabel.setTextFill(Color.web("#7F8C8D"));
+    
     // Table with maintenance data
     TableView<MaintenanceRecord> reportTable = new TableView<>();
     reportTable.setItems(maintenanceData);
@@ -841,7 +887,7 @@ private void showBorrowingReport(VBox displayArea) {
     
     reportTable.getColumns().addAll(idCol, itemCol, typeCol, priorityCol, statusCol, reporterCol, dateCol);
     
-    displayArea.getChildren().addAll(headerBox, statsLabel, new Separator(), reportTable);
+    displayArea.getChildren().addAll(headerBox, statsLabel, breakdownLabel, new Separator(), reportTable);
 }
     
    private void showSummaryReport(VBox displayArea) {
@@ -869,30 +915,30 @@ private void showBorrowingReport(VBox displayArea) {
     summaryCards.setAlignment(Pos.CENTER);
     
     // Inventory summary
-    long totalItems = inventoryData.size();
-    long availableItems = inventoryData.stream().filter(item -> "Tersedia".equals(item.getStatus())).count();
-    long borrowedItems = inventoryData.stream().filter(item -> "Dipinjam".equals(item.getStatus())).count();
-    long maintenanceItems = inventoryData.stream().filter(item -> "Maintenance".equals(item.getStatus())).count();
+    long totalItems = counters.getInventoryTotal();
+    long availableItems = counters.count(ItemStatus.TERSEDIA);
+    long borrowedItems = counters.count(ItemStatus.DIPINJAM);
+    long maintenanceItems = counters.count(ItemStatus.MAINTENANCE);
     
     VBox inventoryCard = createSummaryCard("Inventaris", 
         String.format("Total: %d\nTersedia: %d\nDipinjam: %d\nMaintenance: %d", 
             totalItems, availableItems, borrowedItems, maintenanceItems), "#3498DB");
     
     // Borrowing summary
-    long activeBorrows = borrowData.stream().filter(b -> "Dipinjam".equals(b.getStatus())).count();
-    long overdueBorrows = borrowData.stream().filter(b -> "Terlambat".equals(b.getStatus())).count();
+    long activeBorrows = counters.count(BorrowStatus.DIPINJAM);
+    long overdueBorrows = counters.count(BorrowStatus.TERLAMBAT);
     
     VBox borrowCard = createSummaryCard("Peminjaman", 
         String.format("Aktif: %d\nTerlambat: %d\nTotal: %d", 
-            activeBorrows, overdueBorrows, borrowData.size()), "#27AE60");
+            activeBorrows, overdueBorrows, counters.getBorrowTotal()), "#27AE60");
     
     // Maintenance summary
-    long pendingMaintenance = maintenanceData.stream().filter(m -> "Menunggu Penanganan".equals(m.getStatus())).count();
-    long inProgressMaintenance = maintenanceData.stream().filter(m -> "Dalam Proses".equals(m.getStatus())).count();
+    long pendingMaintenance = counters.count(MaintenanceStatus.MENUNGGU_PENANGANAN);
+    long inProgressMaintenance = counters.count(MaintenanceStatus.DALAM_PROSES);
     
     VBox maintenanceCard = createSummaryCard("Maintenance", 
         String.format("Pending: %d\nProses: %d\nTotal: %d", 
-            pendingMaintenance, inProgressMaintenance, maintenanceData.size()), "#E74C3C");
+            pendingMaintenance, inProgressMaintenance, counters.getMaintenanceTotal()), "#E74C3C");
     
     summaryCards.getChildren().addAll(inventoryCard, borrowCard, maintenanceCard);
     
@@ -906,7 +952,7 @@ private void showBorrowingReport(VBox displayArea) {
     
     // Show recent borrows
     borrowData.stream()
-        .filter(b -> "Dipinjam".equals(b.getStatus()) || "Terlambat".equals(b.getStatus()))
+        .filter(b -> b.isActive())
         .limit(5)
         .forEach(b -> {
             Label activityLabel = new Label("📋 " + b.getInventoryName() + " dipinjam oleh " + b.getBorrowerName());
@@ -957,6 +1003,7 @@ private VBox createSummaryCard(String title, String content, String color) {
     }
     
     private VBox createMainContent() {
+        checkOverdue();
         VBox mainContent = new VBox(20);
         mainContent.setPadding(new Insets(30));
         mainContent.setStyle("-fx-background-color: #ECF0F1;");
@@ -974,10 +1021,10 @@ private VBox createSummaryCard(String title, String content, String color) {
         HBox statsContainer = new HBox(20);
         statsContainer.setAlignment(Pos.CENTER);
         
-        long totalItems = inventoryData.size();
-        long borrowedItems = inventoryData.stream().filter(item -> "Dipinjam".equals(item.getStatus())).count();
-        long maintenanceItems = inventoryData.stream().filter(item -> "Maintenance".equals(item.getStatus())).count();
-        long availableItems = inventoryData.stream().filter(item -> "Tersedia".equals(item.getStatus())).count();
+        long totalItems = counters.getInventoryTotal();
+        long borrowedItems = counters.count(ItemStatus.DIPINJAM);
+        long maintenanceItems = counters.count(ItemStatus.MAINTENANCE);
+        long availableItems = counters.count(ItemStatus.TERSEDIA);
         
         VBox totalCard = createStatCard("Total Inventaris", String.valueOf(totalItems), "#3498DB");
         VBox borrowedCard = createStatCard("Sedang Dipinjam", String.valueOf(borrowedItems), "#E67E22");
@@ -1058,7 +1105,7 @@ private VBox createSummaryCard(String title, String content, String color) {
         searchLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
         
         TextField searchField = new TextField();
-        searchField.setPromptText("Cari berdasarkan nama, kategori, atau merk...");
+        searchField.setPromptText("Cari berdasarkan nama, kategori, merk, atau lokasi...");
         searchField.setPrefWidth(300);
         searchField.setStyle("-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-color: #BDC3C7;");
         
@@ -1069,13 +1116,16 @@ private VBox createSummaryCard(String title, String content, String color) {
         
         // Search functionality
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            updateInventoryFilter(newValue, categoryFilter.getValue());
+            inventoryFilter.submit(new FilterEngine.Query(newValue, null, categoryFilter.getValue()));
         });
         
         categoryFilter.setOnAction(e -> {
-            updateInventoryFilter(searchField.getText(), categoryFilter.getValue());
+            inventoryFilter.submitNow(new FilterEngine.Query(searchField.getText(), null, categoryFilter.getValue()));
         });
         
+        // View baru dimulai tanpa filter
+        inventoryFilter.submitNow(new FilterEngine.Query("", null, null));
+        
         searchBox.getChildren().addAll(searchLabel, searchField, categoryFilter);
         
         // Table (without status column)
@@ -1097,33 +1147,10 @@ private VBox createSummaryCard(String title, String content, String color) {
         return inventoryContent;
     }
     
-    private void updateInventoryFilter(String searchText, String categoryFilter) {
-        filteredData.setPredicate(item -> {
-            // Search text filter
-            if (searchText != null && !searchText.isEmpty()) {
-                String lowerCaseFilter = searchText.toLowerCase();
-                if (!item.getNama().toLowerCase().contains(lowerCaseFilter) &&
-                    !item.getKategori().toLowerCase().contains(lowerCaseFilter) &&
-                    !item.getMerk().toLowerCase().contains(lowerCaseFilter)) {
-                    return false;
-                }
-            }
-            
-            // Category filter
-            if (categoryFilter != null && !categoryFilter.equals("Semua Kategori")) {
-                if (!item.getKategori().equals(categoryFilter)) {
-                    return false;
-                }
-            }
-            
-            return true;
-        });
-    }
-    
     // Create inventory table without status column
     private TableView<InventoryItem> createInventoryTableWithoutStatus() {
         TableView<InventoryItem> table = new TableView<>();
-        table.setItems(filteredData);
+        table.setItems(inventoryFilter.getResults());
         table.setPrefHeight(400);
         
         // Columns (removed status column)
@@ -1199,6 +1226,7 @@ private VBox createSummaryCard(String title, String content, String color) {
     }
     
     private VBox createBorrowingContent() {
+        checkOverdue();
         VBox borrowContent = new VBox(20);
         borrowContent.setPadding(new Insets(30));
         borrowContent.setStyle("-fx-background-color: #ECF0F1;");
@@ -1238,6 +1266,7 @@ private VBox createSummaryCard(String title, String content, String color) {
     }
     
     private VBox createReturnContent() {
+        checkOverdue();
         VBox returnContent = new VBox(20);
         returnContent.setPadding(new Insets(30));
         returnContent.setStyle("-fx-background-color: #ECF0F1;");
@@ -1261,7 +1290,7 @@ private VBox createSummaryCard(String title, String content, String color) {
         
         // Show borrowed items only
         FilteredList<BorrowRecord> activeBorrows = new FilteredList<>(borrowData, 
-            record -> "Dipinjam".equals(record.getStatus()) || "Terlambat".equals(record.getStatus()));
+            record -> record.isActive());
         
         TableView<BorrowRecord> returnTable = new TableView<>();
         returnTable.setItems(activeBorrows);
@@ -1414,7 +1443,7 @@ private VBox createSummaryCard(String title, String content, String color) {
     
     private TableView<InventoryItem> createInventoryTable() {
         TableView<InventoryItem> table = new TableView<>();
-        table.setItems(filteredData);
+        table.setItems(inventoryFilter.getResults());
         table.setPrefHeight(400);
         
         // Columns
@@ -1533,7 +1562,7 @@ private VBox createSummaryCard(String title, String content, String color) {
     
     // Dialog methods (keeping existing form dialogs for data entry)
     private void showBorrowForm() {
-        BorrowForm form = new BorrowForm(primaryStage, inventoryData);
+        BorrowForm form = new BorrowForm(primaryStage, inventoryData, borrowerIndex);
         BorrowRecord newRecord = form.showAndWait();
         
         if (newRecord != null) {
@@ -1542,13 +1571,11 @@ private VBox createSummaryCard(String title, String content, String color) {
             borrowData.add(newRecord);
             
             // Update inventory status
-            InventoryItem item = inventoryData.stream()
-                .filter(i -> i.getId().equals(newRecord.getInventoryId()))
-                .findFirst()
-                .orElse(null);
+            InventoryItem item = inventoryRepository.findById(newRecord.getInventoryId());
             if (item != null) {
                 item.setStatus("Dipinjam");
             }
+            saveChanges();
             
             showAlert("Sukses", "Peminjaman berhasil dicatat dengan ID: " + borrowId, Alert.AlertType.INFORMATION);
             
@@ -1569,17 +1596,13 @@ private VBox createSummaryCard(String title, String content, String color) {
             // Update borrow record
             if (BorrowManager.returnItem(borrowData, record.getBorrowId(), returnNotes)) {
                 // Update inventory status
-                InventoryItem item = inventoryData.stream()
-                    .filter(i -> i.getId().equals(record.getInventoryId()))
-                    .findFirst()
-                    .orElse(null);
+                InventoryItem item = inventoryRepository.findById(record.getInventoryId());
                 if (item != null) {
                     item.setStatus("Tersedia");
                 }
                 
-                // Save data
-                BorrowManager.saveBorrowData(borrowData);
-                CSVManager.saveInventoryData(inventoryData);
+                // Save data - hanya store dan baris yang berubah
+                saveChanges();
                 
                 showAlert("Sukses", "Alat berhasil dikembalikan!", Alert.AlertType.INFORMATION);
                 refreshCurrentContent();
@@ -1597,17 +1620,13 @@ private VBox createSummaryCard(String title, String content, String color) {
             maintenanceData.add(newRecord);
             
             // Update inventory status
-            InventoryItem item = inventoryData.stream()
-                .filter(i -> i.getId().equals(newRecord.getInventoryId()))
-                .findFirst()
-                .orElse(null);
+            InventoryItem item = inventoryRepository.findById(newRecord.getInventoryId());
             if (item != null) {
                 item.setStatus("Maintenance");
             }
             
-            // Save data
-            MaintenanceManager.saveMaintenanceData(maintenanceData);
-            CSVManager.saveInventoryData(inventoryData);
+            // Save data - hanya store dan baris yang berubah
+            saveChanges();
             
             showAlert("Sukses", "Laporan maintenance berhasil dicatat dengan ID: " + maintenanceId, Alert.AlertType.INFORMATION);
             refreshCurrentContent();
@@ -1622,15 +1641,12 @@ private VBox createSummaryCard(String title, String content, String color) {
         // Update record yang ada dengan data baru
         if (MaintenanceManager.updateMaintenanceRecord(maintenanceData, updatedRecord)) {
             // Update inventory status based on maintenance status
-            InventoryItem item = inventoryData.stream()
-                .filter(i -> i.getId().equals(record.getInventoryId()))
-                .findFirst()
-                .orElse(null);
+            InventoryItem item = inventoryRepository.findById(record.getInventoryId());
             
             if (item != null) {
                 if ("Selesai".equals(updatedRecord.getStatus())) {
-                    // Check if item is borrowed, otherwise set as available
-                    if (!BorrowManager.isItemBorrowed(borrowData, item.getId())) {
+                    // Check if item is borrowed, otherwise set as available (index, tanpa scan peminjaman)
+                    if (!activeBorrows.isBorrowed(item.getId())) {
                         item.setStatus("Tersedia");
                     }
                 } else {
@@ -1638,9 +1654,8 @@ private VBox createSummaryCard(String title, String content, String color) {
                 }
             }
             
-            // Save data
-            MaintenanceManager.saveMaintenanceData(maintenanceData);
-            CSVManager.saveInventoryData(inventoryData);
+            // Save data - hanya store dan baris yang berubah
+            saveChanges();
             
             showAlert("Sukses", "Status maintenance berhasil diperbarui!", Alert.AlertType.INFORMATION);
             refreshCurrentContent();
@@ -1660,7 +1675,7 @@ private VBox createSummaryCard(String title, String content, String color) {
             newItem.setId(newId);
             
             inventoryData.add(newItem);
-            CSVManager.saveInventoryData(inventoryData);
+            saveChanges();
             showAlert("Sukses", "Data inventaris berhasil ditambahkan dengan ID: " + newId, Alert.AlertType.INFORMATION);
             
             refreshCurrentContent();
@@ -1681,7 +1696,8 @@ private VBox createSummaryCard(String title, String content, String color) {
             item.setStatus(updatedItem.getStatus());
             item.setTanggalMasuk(updatedItem.getTanggalMasuk());
             
-            CSVManager.saveInventoryData(inventoryData);
+            // Hanya disimpan jika ada field yang benar-benar berubah
+            saveChanges();
             inventoryTable.refresh();
             showAlert("Sukses", "Data inventaris berhasil diperbarui!", Alert.AlertType.INFORMATION);
         }
@@ -1696,17 +1712,18 @@ private VBox createSummaryCard(String title, String content, String color) {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.get() == ButtonType.OK) {
             inventoryData.remove(item);
-            CSVManager.saveInventoryData(inventoryData);
+            saveChanges();
             showAlert("Sukses", "Data inventaris berhasil dihapus!", Alert.AlertType.INFORMATION);
         }
     }
     
     private void refreshInventoryData() {
-        loadAllData();
-        if (inventoryTable != null) {
-            inventoryTable.refresh();
-        }
-        showAlert("Sukses", "Data inventaris berhasil direfresh!", Alert.AlertType.INFORMATION);
+        loadAllData(() -> {
+            if (inventoryTable != null) {
+                inventoryTable.refresh();
+            }
+            showAlert("Sukses", "Data inventaris berhasil direfresh!", Alert.AlertType.INFORMATION);
+        });
     }
     
     private void refreshCurrentContent() {
@@ -1784,7 +1801,8 @@ private VBox createSummaryCard(String title, String content, String color) {
 
     private void openEnhancedReportGenerator() {
         try {
-            ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData);
+            ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData, counters, inventoryIndex,
+                borrowDates, maintenanceDates, reportCache);
             reportGenerator.showAndWait();
         } catch (Exception e) {
             showAlert("Error", "Gagal membuka generator laporan: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -1793,7 +1811,8 @@ private VBox createSummaryCard(String title, String content, String color) {
 
     private void openInventoryReportGenerator() {
     try {
-        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData);
+        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData, counters, inventoryIndex,
+            borrowDates, maintenanceDates, reportCache);
         reportGenerator.showAndWait();
     } catch (Exception e) {
         showAlert("Error", "Gagal membuka generator laporan: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -1802,7 +1821,8 @@ private VBox createSummaryCard(String title, String content, String color) {
 
 private void openBorrowingReportGenerator() {
     try {
-        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData);
+        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData, counters, inventoryIndex,
+            borrowDates, maintenanceDates, reportCache);
         reportGenerator.showAndWait();
     } catch (Exception e) {
         showAlert("Error", "Gagal membuka generator laporan: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -1811,7 +1831,8 @@ private void openBorrowingReportGenerator() {
 
 private void openMaintenanceReportGenerator() {
     try {
-        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData);
+        ReportGenerator reportGenerator = new ReportGenerator(primaryStage, inventoryData, borrowData, maintenanceData, counters, inventoryIndex,
+            borrowDates, maintenanceDates, reportCache);
         reportGenerator.showAndWait();
     } catch (Exception e) {
         showAlert("Error", "Gagal membuka generator laporan: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -8,17 +8,45 @@ public class MaintenanceManager {
     private static final String CSV_FILE = "maintenance.csv";
     // PERBAIKAN: Update header CSV dengan field tambahan
     private static final String CSV_HEADER = "MaintenanceID,InventoryID,InventoryName,IssueType,Priority,ReportedBy,Description,ReportedDate,CompletedDate,Status,Technician,Cost,Solution";
+    private static final DataJournal JOURNAL = new DataJournal("maintenance.journal");
+    // Snapshot biner untuk startup cepat; CSV tetap format import/export
+    private static final BinarySnapshot<MaintenanceRecord> BINARY = new BinarySnapshot<>(
+        "maintenance.bin", BinarySnapshot.STORE_MAINTENANCE,
+        new BinarySnapshot.Column[]{
+            BinarySnapshot.Column.ID, BinarySnapshot.Column.ID, BinarySnapshot.Column.TEXT,
+            BinarySnapshot.Column.DICT, BinarySnapshot.Column.DICT, BinarySnapshot.Column.TEXT,
+            BinarySnapshot.Column.TEXT, BinarySnapshot.Column.DATE, BinarySnapshot.Column.DATE,
+            BinarySnapshot.Column.DICT, BinarySnapshot.Column.TEXT, BinarySnapshot.Column.TEXT,
+            BinarySnapshot.Column.TEXT
+        },
+        r -> new String[]{r.getMaintenanceId(), r.getInventoryId(), r.getInventoryName(), r.getIssueType(),
+            r.getPriority(), r.getReportedBy(), r.getDescription(), r.getReportedDate(), r.getCompletedDate(),
+            r.getStatus(), r.getTechnician(), r.getCost(), r.getSolution()},
+        f -> new MaintenanceRecord(f[0], f[1], f[2], f[3], f[4], f[5], f[6], f[7], f[8], f[9],
+            f[10], f[11], f[12]));
     
-    public static void saveMaintenanceData(ObservableList<MaintenanceRecord> data) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CSV_FILE))) {
-            writer.println(CSV_HEADER);
-            for (MaintenanceRecord record : data) {
-                writer.println(record.toCSV());
-            }
-            System.out.println("Data maintenance berhasil disimpan ke " + CSV_FILE);
-        } catch (IOException e) {
-            System.err.println("Error saving maintenance data: " + e.getMessage());
+    // Target write-behind: perubahan dari UI ditulis oleh WriteBehindPersister di thread terpisah
+    public static final WriteBehindPersister.Store<MaintenanceRecord> WRITE_BEHIND = new WriteBehindPersister.Store<>(
+        "maintenance", MaintenanceRecord::getMaintenanceId, MaintenanceRecord::toCSV,
+        MaintenanceManager::writeMaintenanceChanges, JOURNAL::needsCompaction, MaintenanceManager::saveMaintenanceData);
+    
+    public static boolean saveMaintenanceData(List<MaintenanceRecord> data) {
+        // Tulis ke file sementara lalu rename atomik, file lama tetap utuh jika gagal
+        if (!SnapshotWriter.writeCsv(CSV_FILE, CSV_HEADER, data, MaintenanceRecord::toCSV)) {
+            return false;
         }
+        System.out.println("Data maintenance berhasil disimpan ke " + CSV_FILE);
+        IdSequence.persist();
+        BINARY.write(data);
+        JOURNAL.truncate();
+        return true;
+    }
+    
+    // Tulis sekumpulan perubahan sekaligus (null = hapus); dipanggil dari thread write-behind
+    public static boolean writeMaintenanceChanges(Map<String, String> changes) {
+        boolean written = JOURNAL.appendAll(changes);
+        IdSequence.persist();
+        return written;
     }
     
     public static ObservableList<MaintenanceRecord> loadMaintenanceData() {
@@ -28,31 +56,33 @@ public class MaintenanceManager {
         if (!file.exists()) {
             // Create sample data if file doesn't exist
             createSampleMaintenanceData(data);
+            IdSequence.seedAll(data, MaintenanceRecord::getMaintenanceId);
             saveMaintenanceData(data);
             return data;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(CSV_FILE))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue; // Skip header
-                }
-                
-                MaintenanceRecord record = MaintenanceRecord.fromCSV(line);
-                if (record != null) {
-                    data.add(record);
-                }
+        try {
+            List<MaintenanceRecord> loaded = BINARY.isUpToDate(CSV_FILE) ? BINARY.read() : null;
+            if (loaded != null) {
+                data.addAll(loaded);
+                System.out.println("Data maintenance berhasil dimuat dari snapshot biner");
+            } else {
+                // Tokenizer RFC-4180 langsung ke factory record, header dilewati
+                loaded = new ArrayList<>();
+                CSVTokenizer.readFile(CSV_FILE, MaintenanceRecord::fromRow, loaded);
+                data.addAll(loaded);
+                System.out.println("Data maintenance berhasil dimuat dari " + CSV_FILE);
+                BINARY.write(data);
             }
-            System.out.println("Data maintenance berhasil dimuat dari " + CSV_FILE);
         } catch (IOException e) {
             System.err.println("Error loading maintenance data: " + e.getMessage());
             createSampleMaintenanceData(data);
         }
         
+        // Terapkan perubahan yang belum di-compact ke snapshot
+        JOURNAL.replay(data, MaintenanceRecord::getMaintenanceId, MaintenanceRecord::fromCSV);
+        IdSequence.seedAll(data, MaintenanceRecord::getMaintenanceId);
+        
         return data;
     }
     
@@ -72,30 +102,58 @@ public class MaintenanceManager {
     }
     
     public static String generateNewMaintenanceId(ObservableList<MaintenanceRecord> data) {
-        int maxId = 0;
-        
-        for (MaintenanceRecord record : data) {
-            String id = record.getMaintenanceId();
-            if (id.startsWith("MNT")) {
-                try {
-                    int numId = Integer.parseInt(id.substring(3));
-                    maxId = Math.max(maxId, numId);
-                } catch (NumberFormatException e) {
-                    // Ignore invalid IDs
-                }
+        // High-water mark sudah diisi saat load, tidak perlu scan data
+        return IdSequence.next("MNT");
+    }
+    
+    /**
+     * Buat record Maintenance Rutin untuk item yang jatuh tempo (dari MaintenanceScheduler)
+     * dan ubah status item menjadi Maintenance. Item yang sudah dalam maintenance dilewati.
+     * Record ditambahkan ke list dalam satu addAll.
+     */
+    public static List<MaintenanceRecord> createRoutineMaintenance(List<MaintenanceRecord> data,
+                                                                   List<InventoryItem> dueItems, LocalDate date) {
+        List<MaintenanceRecord> created = new ArrayList<>();
+        for (InventoryItem item : dueItems) {
+            if (ItemStatus.MAINTENANCE == item.getStatusValue()) {
+                continue;
             }
+            created.add(new MaintenanceRecord(
+                IdSequence.next("MNT"),
+                item.getId(),
+                item.getNama(),
+                MaintenanceScheduler.ISSUE_TYPE,
+                "Sedang",
+                "Sistem Otomatis",
+                "Maintenance rutin terjadwal (setiap " + MaintenanceScheduler.INTERVAL_MONTHS + " bulan)",
+                date.toString(),
+                null,
+                "Menunggu Penanganan"
+            ));
+            item.setStatus("Maintenance");
         }
-        
-        return String.format("MNT%04d", maxId + 1);
+        data.addAll(created);
+        return created;
     }
     
     public static boolean isItemUnderMaintenance(ObservableList<MaintenanceRecord> data, String inventoryId) {
         return data.stream().anyMatch(record -> 
             record.getInventoryId().equals(inventoryId) && 
-            ("Menunggu Penanganan".equals(record.getStatus()) || "Dalam Proses".equals(record.getStatus()))
+            record.isOpen()
         );
     }
     
+    // Semua inventoryId dengan maintenance yang belum selesai dalam satu pass
+    public static Set<String> getOpenMaintenanceInventoryIds(List<MaintenanceRecord> data) {
+        Set<String> ids = new HashSet<>();
+        for (MaintenanceRecord record : data) {
+            if (record.isOpen()) {
+                ids.add(record.getInventoryId());
+            }
+        }
+        return ids;
+    }
+    
     // PERBAIKAN: Method untuk update maintenance record secara lengkap
     public static boolean updateMaintenanceRecord(ObservableList<MaintenanceRecord> data, MaintenanceRecord updatedRecord) {
         for (int i = 0; i < data.size(); i++) {
@@ -131,7 +189,7 @@ public class MaintenanceManager {
     
     public static List<MaintenanceRecord> getPendingMaintenance(ObservableList<MaintenanceRecord> data) {
         return data.stream()
-            .filter(record -> "Menunggu Penanganan".equals(record.getStatus()) || "Dalam Proses".equals(record.getStatus()))
+            .filter(record -> record.isOpen())
             .collect(java.util.stream.Collectors.toList());
     }
     
@@ -143,7 +201,7 @@ public class MaintenanceManager {
                     java.time.LocalDate reportedDate = java.time.LocalDate.parse(record.getReportedDate());
                     long daysSinceReported = java.time.temporal.ChronoUnit.DAYS.between(reportedDate, today);
                     return daysSinceReported > 7 && 
-                           ("Menunggu Penanganan".equals(record.getStatus()) || "Dalam Proses".equals(record.getStatus()));
+                           record.isOpen();
                 } catch (Exception e) {
                     return false;
                 }
@@ -169,10 +227,21 @@ public class MaintenanceManager {
             .collect(java.util.stream.Collectors.toList());
     }
     
+    // Versi berindex: hanya record yang selesai dalam periode yang diperiksa, tanpa parse tanggal
+    public static List<MaintenanceRecord> getCompletedMaintenanceInRange(DateRangeIndex<MaintenanceRecord> index,
+                                                                         LocalDate startDate, LocalDate endDate) {
+        List<MaintenanceRecord> completed = index.range(MaintenanceRecord.COMPLETED_DATE, startDate, endDate);
+        completed.removeIf(record -> !"Selesai".equals(record.getStatus()));
+        return completed;
+    }
+    
     // PERBAIKAN: Method untuk menghitung total biaya maintenance
     public static double getTotalMaintenanceCost(List<MaintenanceRecord> records) {
         return records.stream()
             .mapToDouble(record -> {
+                if (record.hasCostValue()) {
+                    return record.getCostValue(); // Sudah berupa angka, tanpa regex/parse
+                }
                 try {
                     String costStr = record.getCost().replaceAll("[^\\d.]", ""); // Remove non-numeric characters
                     return costStr.isEmpty() ? 0.0 : Double.parseDouble(costStr);
@@ -195,10 +264,13 @@ public class MaintenanceManager {
         Map<String, Long> stats = new HashMap<>();
         
         stats.put("total", (long) data.size());
-        stats.put("pending", data.stream().filter(r -> "Menunggu Penanganan".equals(r.getStatus())).count());
-        stats.put("inProgress", data.stream().filter(r -> "Dalam Proses".equals(r.getStatus())).count());
-        stats.put("completed", data.stream().filter(r -> "Selesai".equals(r.getStatus())).count());
-        stats.put("highPriority", data.stream().filter(r -> "Tinggi".equals(r.getPriority()) || "Kritis".equals(r.getPriority())).count());
+        // Satu pass per field (bukan satu stream per angka)
+        Map<MaintenanceStatus, Long> byStatus = EnumCounter.tally(data, MaintenanceStatus.class, MaintenanceRecord::getStatusValue);
+        Map<MaintenancePriority, Long> byPriority = EnumCounter.tally(data, MaintenancePriority.class, MaintenanceRecord::getPriorityValue);
+        stats.put("pending", byStatus.get(MaintenanceStatus.MENUNGGU_PENANGANAN));
+        stats.put("inProgress", byStatus.get(MaintenanceStatus.DALAM_PROSES));
+        stats.put("completed", byStatus.get(MaintenanceStatus.SELESAI));
+        stats.put("highPriority", byPriority.get(MaintenancePriority.TINGGI) + byPriority.get(MaintenancePriority.KRITIS));
         
         return stats;
     }
@@ -0,0 +1,42 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Prioritas maintenance
+public enum MaintenancePriority {
+    RENDAH("Rendah"),
+    SEDANG("Sedang"),
+    TINGGI("Tinggi"),
+    KRITIS("Kritis");
+
+    private static final Map<String, MaintenancePriority> BY_LABEL = new HashMap<>();
+    static {
+        for (MaintenancePriority value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+
+    MaintenancePriority(String label) {
+        this.label = label;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isHigh() {
+        return this == TINGGI || this == KRITIS;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static MaintenancePriority fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
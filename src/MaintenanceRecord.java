@@ -1,38 +1,52 @@
+import java.time.LocalDate;
 import javafx.beans.property.SimpleStringProperty;
 
-public class MaintenanceRecord {
-    private SimpleStringProperty maintenanceId;
-    private SimpleStringProperty inventoryId;
-    private SimpleStringProperty inventoryName;
-    private SimpleStringProperty issueType;
-    private SimpleStringProperty priority;
-    private SimpleStringProperty reportedBy;
-    private SimpleStringProperty description;
-    private SimpleStringProperty reportedDate;
-    private SimpleStringProperty completedDate;
-    private SimpleStringProperty status;
+public class MaintenanceRecord extends CompactRecord {
+    // Index field (adapter property dan event perubahan)
+    public static final int MAINTENANCE_ID = 0, INVENTORY_ID = 1, INVENTORY_NAME = 2, ISSUE_TYPE = 3,
+        PRIORITY = 4, REPORTED_BY = 5, DESCRIPTION = 6, REPORTED_DATE = 7, COMPLETED_DATE = 8,
+        STATUS = 9, TECHNICIAN = 10, COST = 11, SOLUTION = 12;
+    private static final int FIELD_COUNT = 13;
+    // Penanda biaya kosong
+    private static final long NO_COST = Long.MIN_VALUE;
+
+    private String maintenanceId;
+    private String inventoryId;
+    private String inventoryName;
+    private String issueType;
+    private String priority;
+    private String reportedBy;
+    private String description;
+    private int reportedDate;
+    private int completedDate;
+    private String status;
     // PERBAIKAN: Tambahan field untuk maintenance yang lebih lengkap
-    private SimpleStringProperty technician;
-    private SimpleStringProperty cost;
-    private SimpleStringProperty solution;
+    private String technician;
+    private long cost = NO_COST;
+    private String solution;
+    // Teks mentah, hanya jika tanggal/biaya tidak berformat standar (jarang)
+    private String reportedDateRaw;
+    private String completedDateRaw;
+    private String costRaw;
     
     public MaintenanceRecord(String maintenanceId, String inventoryId, String inventoryName,
                            String issueType, String priority, String reportedBy, String description,
                            String reportedDate, String completedDate, String status) {
-        this.maintenanceId = new SimpleStringProperty(maintenanceId);
-        this.inventoryId = new SimpleStringProperty(inventoryId);
-        this.inventoryName = new SimpleStringProperty(inventoryName);
-        this.issueType = new SimpleStringProperty(issueType);
-        this.priority = new SimpleStringProperty(priority);
-        this.reportedBy = new SimpleStringProperty(reportedBy);
-        this.description = new SimpleStringProperty(description);
-        this.reportedDate = new SimpleStringProperty(reportedDate);
-        this.completedDate = new SimpleStringProperty(completedDate != null ? completedDate : "");
-        this.status = new SimpleStringProperty(status);
+        this.maintenanceId = maintenanceId;
+        this.inventoryId = inventoryId;
+        this.inventoryName = inventoryName;
+        this.issueType = intern(issueType);
+        this.priority = intern(priority);
+        this.reportedBy = intern(reportedBy);
+        this.description = description;
+        this.reportedDate = parseDate(reportedDate);
+        this.reportedDateRaw = rawDate(reportedDate, this.reportedDate);
+        this.completedDate = parseDate(completedDate);
+        this.completedDateRaw = rawDate(completedDate, this.completedDate);
+        this.status = intern(status);
         // PERBAIKAN: Inisialisasi field tambahan
-        this.technician = new SimpleStringProperty("");
-        this.cost = new SimpleStringProperty("");
-        this.solution = new SimpleStringProperty("");
+        this.technician = "";
+        this.solution = "";
     }
     
     // Constructor dengan field tambahan
@@ -42,72 +56,134 @@ public class MaintenanceRecord {
                            String technician, String cost, String solution) {
         this(maintenanceId, inventoryId, inventoryName, issueType, priority, reportedBy, 
              description, reportedDate, completedDate, status);
-        this.technician = new SimpleStringProperty(technician != null ? technician : "");
-        this.cost = new SimpleStringProperty(cost != null ? cost : "");
-        this.solution = new SimpleStringProperty(solution != null ? solution : "");
+        this.technician = intern(nullToEmpty(technician));
+        setCostFields(cost);
+        this.solution = nullToEmpty(solution);
+    }
+    
+    @Override
+    protected int fieldCount() { return FIELD_COUNT; }
+    
+    // Biaya angka murni disimpan sebagai long, selain itu (misal "Rp 150.000") sebagai teks mentah
+    private void setCostFields(String text) {
+        cost = NO_COST;
+        costRaw = null;
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        try {
+            long value = Long.parseLong(text);
+            if (value >= 0 && Long.toString(value).equals(text)) {
+                cost = value;
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // Bukan angka murni, simpan apa adanya
+        }
+        costRaw = text;
     }
     
     // Getters
-    public String getMaintenanceId() { return maintenanceId.get(); }
-    public String getInventoryId() { return inventoryId.get(); }
-    public String getInventoryName() { return inventoryName.get(); }
-    public String getIssueType() { return issueType.get(); }
-    public String getPriority() { return priority.get(); }
-    public String getReportedBy() { return reportedBy.get(); }
-    public String getDescription() { return description.get(); }
-    public String getReportedDate() { return reportedDate.get(); }
-    public String getCompletedDate() { return completedDate.get(); }
-    public String getStatus() { return status.get(); }
-    public String getTechnician() { return technician.get(); }
-    public String getCost() { return cost.get(); }
-    public String getSolution() { return solution.get(); }
+    public String getMaintenanceId() { return maintenanceId; }
+    public String getInventoryId() { return inventoryId; }
+    public String getInventoryName() { return inventoryName; }
+    public String getIssueType() { return issueType; }
+    public String getPriority() { return priority; }
+    public String getReportedBy() { return reportedBy; }
+    public String getDescription() { return description; }
+    public String getReportedDate() { return dateText(reportedDate, reportedDateRaw); }
+    public String getCompletedDate() { return dateText(completedDate, completedDateRaw); }
+    public String getStatus() { return status; }
+    public String getTechnician() { return technician; }
+    public String getCost() {
+        if (costRaw != null) {
+            return costRaw;
+        }
+        return cost == NO_COST ? "" : Long.toString(cost);
+    }
+    public String getSolution() { return solution; }
     
-    // Property getters for TableView
-    public SimpleStringProperty maintenanceIdProperty() { return maintenanceId; }
-    public SimpleStringProperty inventoryIdProperty() { return inventoryId; }
-    public SimpleStringProperty inventoryNameProperty() { return inventoryName; }
-    public SimpleStringProperty issueTypeProperty() { return issueType; }
-    public SimpleStringProperty priorityProperty() { return priority; }
-    public SimpleStringProperty reportedByProperty() { return reportedBy; }
-    public SimpleStringProperty descriptionProperty() { return description; }
-    public SimpleStringProperty reportedDateProperty() { return reportedDate; }
-    public SimpleStringProperty completedDateProperty() { return completedDate; }
-    public SimpleStringProperty statusProperty() { return status; }
-    public SimpleStringProperty technicianProperty() { return technician; }
-    public SimpleStringProperty costProperty() { return cost; }
-    public SimpleStringProperty solutionProperty() { return solution; }
+    // Typed getters - null jika kosong/tidak dikenal
+    public LocalDate getReportedLocalDate() { return toLocalDate(reportedDate); }
+    public LocalDate getCompletedLocalDate() { return toLocalDate(completedDate); }
+    
+    // Epoch day field tanggal (REPORTED_DATE, COMPLETED_DATE), NO_DATE jika kosong
+    int epochDay(int field) {
+        switch (field) {
+            case REPORTED_DATE: return reportedDate;
+            case COMPLETED_DATE: return completedDate;
+            default: throw new IllegalArgumentException("Bukan field tanggal: " + field);
+        }
+    }
+    public MaintenanceStatus getStatusValue() { return MaintenanceStatus.fromLabel(status); }
+    public MaintenancePriority getPriorityValue() { return MaintenancePriority.fromLabel(priority); }
+    
+    // Maintenance belum selesai (Menunggu Penanganan/Dalam Proses)
+    public boolean isOpen() {
+        MaintenanceStatus value = getStatusValue();
+        return value != null && value.isOpen();
+    }
+    
+    // Biaya sebagai angka; false/0 jika kosong atau bukan angka murni
+    public boolean hasCostValue() { return cost != NO_COST; }
+    public long getCostValue() { return cost != NO_COST ? cost : 0L; }
+    
+    // Property getters for TableView (dibuat saat pertama kali diminta)
+    public SimpleStringProperty maintenanceIdProperty() { return property(MAINTENANCE_ID, "maintenanceId", maintenanceId, this::setMaintenanceId); }
+    public SimpleStringProperty inventoryIdProperty() { return property(INVENTORY_ID, "inventoryId", inventoryId, this::setInventoryId); }
+    public SimpleStringProperty inventoryNameProperty() { return property(INVENTORY_NAME, "inventoryName", inventoryName, this::setInventoryName); }
+    public SimpleStringProperty issueTypeProperty() { return property(ISSUE_TYPE, "issueType", issueType, this::setIssueType); }
+    public SimpleStringProperty priorityProperty() { return property(PRIORITY, "priority", priority, this::setPriority); }
+    public SimpleStringProperty reportedByProperty() { return property(REPORTED_BY, "reportedBy", reportedBy, this::setReportedBy); }
+    public SimpleStringProperty descriptionProperty() { return property(DESCRIPTION, "description", description, this::setDescription); }
+    public SimpleStringProperty reportedDateProperty() { return property(REPORTED_DATE, "reportedDate", getReportedDate(), this::setReportedDate); }
+    public SimpleStringProperty completedDateProperty() { return property(COMPLETED_DATE, "completedDate", getCompletedDate(), this::setCompletedDate); }
+    public SimpleStringProperty statusProperty() { return property(STATUS, "status", status, this::setStatus); }
+    public SimpleStringProperty technicianProperty() { return property(TECHNICIAN, "technician", technician, this::setTechnician); }
+    public SimpleStringProperty costProperty() { return property(COST, "cost", getCost(), this::setCost); }
+    public SimpleStringProperty solutionProperty() { return property(SOLUTION, "solution", solution, this::setSolution); }
     
     // Setters
-    public void setMaintenanceId(String maintenanceId) { this.maintenanceId.set(maintenanceId); }
-    public void setInventoryId(String inventoryId) { this.inventoryId.set(inventoryId); }
-    public void setInventoryName(String inventoryName) { this.inventoryName.set(inventoryName); }
-    public void setIssueType(String issueType) { this.issueType.set(issueType); }
-    public void setPriority(String priority) { this.priority.set(priority); }
-    public void setReportedBy(String reportedBy) { this.reportedBy.set(reportedBy); }
-    public void setDescription(String description) { this.description.set(description); }
-    public void setReportedDate(String reportedDate) { this.reportedDate.set(reportedDate); }
-    public void setCompletedDate(String completedDate) { this.completedDate.set(completedDate != null ? completedDate : ""); }
-    public void setStatus(String status) { this.status.set(status); }
-    public void setTechnician(String technician) { this.technician.set(technician != null ? technician : ""); }
-    public void setCost(String cost) { this.cost.set(cost != null ? cost : ""); }
-    public void setSolution(String solution) { this.solution.set(solution != null ? solution : ""); }
+    public void setMaintenanceId(String maintenanceId) { String old = this.maintenanceId; this.maintenanceId = maintenanceId; updated(MAINTENANCE_ID, old, this.maintenanceId); }
+    public void setInventoryId(String inventoryId) { String old = this.inventoryId; this.inventoryId = inventoryId; updated(INVENTORY_ID, old, this.inventoryId); }
+    public void setInventoryName(String inventoryName) { String old = this.inventoryName; this.inventoryName = inventoryName; updated(INVENTORY_NAME, old, this.inventoryName); }
+    public void setIssueType(String issueType) { String old = this.issueType; this.issueType = intern(issueType); updated(ISSUE_TYPE, old, this.issueType); }
+    public void setPriority(String priority) { String old = this.priority; this.priority = intern(priority); updated(PRIORITY, old, this.priority); }
+    public void setReportedBy(String reportedBy) { String old = this.reportedBy; this.reportedBy = intern(reportedBy); updated(REPORTED_BY, old, this.reportedBy); }
+    public void setDescription(String description) { String old = this.description; this.description = description; updated(DESCRIPTION, old, this.description); }
+    public void setReportedDate(String reportedDate) {
+        String old = getReportedDate();
+        this.reportedDate = parseDate(reportedDate);
+        this.reportedDateRaw = rawDate(reportedDate, this.reportedDate);
+        updated(REPORTED_DATE, old, getReportedDate());
+    }
+    public void setCompletedDate(String completedDate) {
+        String old = getCompletedDate();
+        this.completedDate = parseDate(completedDate);
+        this.completedDateRaw = rawDate(completedDate, this.completedDate);
+        updated(COMPLETED_DATE, old, getCompletedDate());
+    }
+    public void setStatus(String status) { String old = this.status; this.status = intern(status); updated(STATUS, old, this.status); }
+    public void setTechnician(String technician) { String old = this.technician; this.technician = intern(nullToEmpty(technician)); updated(TECHNICIAN, old, this.technician); }
+    public void setCost(String cost) { String old = getCost(); setCostFields(cost); updated(COST, old, getCost()); }
+    public void setSolution(String solution) { String old = this.solution; this.solution = nullToEmpty(solution); updated(SOLUTION, old, this.solution); }
     
     // Convert to CSV format - PERBAIKAN: Tambahkan field baru
     public String toCSV() {
         return String.join(",", 
             getMaintenanceId(), 
             getInventoryId(), 
-            getInventoryName(), 
-            getIssueType(), 
-            getPriority(), 
-            getReportedBy(), 
-            "\"" + getDescription().replace("\"", "\"\"") + "\"",  // Escape quotes in description
+            CSVTokenizer.escape(getInventoryName()), 
+            CSVTokenizer.escape(getIssueType()), 
+            CSVTokenizer.escape(getPriority()), 
+            CSVTokenizer.escape(getReportedBy()), 
+            CSVTokenizer.quote(getDescription()),  // Escape quotes in description
             getReportedDate(), 
             getCompletedDate(), 
             getStatus(),
-            getTechnician(),
-            getCost(),
-            "\"" + getSolution().replace("\"", "\"\"") + "\""  // Escape quotes in solution
+            CSVTokenizer.escape(getTechnician()),
+            CSVTokenizer.escape(getCost()),
+            CSVTokenizer.quote(getSolution())  // Escape quotes in solution
         );
     }
     
@@ -115,55 +191,31 @@ public class MaintenanceRecord {
     public static MaintenanceRecord fromCSV(String csvLine) {
         try {
             // Handle quoted descriptions and solutions
-            String[] parts = parseCSVLine(csvLine);
-            if (parts.length >= 10) {
-                // Backward compatibility - jika hanya ada 10 field (format lama)
-                if (parts.length == 10) {
-                    return new MaintenanceRecord(
-                        parts[0], parts[1], parts[2], parts[3], parts[4], 
-                        parts[5], parts[6], parts[7], parts[8], parts[9]
-                    );
-                }
-                // Format baru dengan 13 field
-                else if (parts.length >= 13) {
-                    return new MaintenanceRecord(
-                        parts[0], parts[1], parts[2], parts[3], parts[4], 
-                        parts[5], parts[6], parts[7], parts[8], parts[9],
-                        parts[10], parts[11], parts[12]
-                    );
-                }
-            }
+            CSVTokenizer row = new CSVTokenizer(csvLine);
+            return row.next() ? fromRow(row) : null;
         } catch (Exception e) {
             System.err.println("Error parsing maintenance CSV line: " + csvLine);
         }
         return null;
     }
     
-    // Helper method to parse CSV line with quoted fields
-    private static String[] parseCSVLine(String csvLine) {
-        java.util.List<String> result = new java.util.ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder field = new StringBuilder();
-        
-        for (int i = 0; i < csvLine.length(); i++) {
-            char c = csvLine.charAt(i);
-            
-            if (c == '"') {
-                if (inQuotes && i + 1 < csvLine.length() && csvLine.charAt(i + 1) == '"') {
-                    field.append('"');
-                    i++; // Skip next quote
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                result.add(field.toString());
-                field = new StringBuilder();
-            } else {
-                field.append(c);
-            }
+    // Create langsung dari record tokenizer (tanpa array sementara)
+    public static MaintenanceRecord fromRow(CSVTokenizer row) {
+        // Backward compatibility - jika hanya ada 10 field (format lama)
+        if (row.size() == 10) {
+            return new MaintenanceRecord(
+                row.get(0), row.get(1), row.get(2), row.get(3), row.get(4), 
+                row.get(5), row.get(6), row.get(7), row.get(8), row.get(9)
+            );
         }
-        result.add(field.toString());
-        
-        return result.toArray(new String[0]);
+        // Format baru dengan 13 field
+        else if (row.size() >= 13) {
+            return new MaintenanceRecord(
+                row.get(0), row.get(1), row.get(2), row.get(3), row.get(4), 
+                row.get(5), row.get(6), row.get(7), row.get(8), row.get(9),
+                row.get(10), row.get(11), row.get(12)
+            );
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Penjadwal maintenance rutin (setiap 6 bulan sejak tanggal masuk). Setiap item inventaris
+ * dijadwalkan di TimingWheel pada tanggal jatuh tempo berikutnya, sehingga setiap hari hanya
+ * item yang jatuh tempo hari itu yang diproses, bukan seluruh inventaris dikali seluruh data
+ * maintenance. Tanggal terakhir dijalankan disimpan ke scheduler.properties oleh pemanggil,
+ * baru setelah record maintenance yang dibuat tersimpan; saat aplikasi dibuka lagi roda
+ * diputar dari tanggal itu, sehingga hari yang terlewat (atau yang record-nya belum sempat
+ * tersimpan) ikut diproses.
+ *
+ * Jadwal diperbarui lewat RecordStore (item baru, dihapus, tanggal masuk diubah). Entri lama
+ * tidak dihapus dari roda; entri yang harinya tidak lagi sama dengan jadwal item dilewati.
+ */
+public class MaintenanceScheduler implements RecordStore.Listener<InventoryItem> {
+    public static final int INTERVAL_MONTHS = 6;
+    public static final String ISSUE_TYPE = "Maintenance Rutin";
+    private static final String STATE_FILE = "scheduler.properties";
+    private static final String LAST_RUN_KEY = "maintenance.lastRun";
+
+    // Satu entri roda: item dan hari jatuh tempo saat dijadwalkan
+    private static final class Due {
+        private final InventoryItem item;
+        private final int day;
+
+        private Due(InventoryItem item, int day) {
+            this.item = item;
+            this.day = day;
+        }
+    }
+
+    private final TimingWheel<Due> wheel;
+    private final Map<InventoryItem, Integer> scheduled = new IdentityHashMap<>();
+    private ScheduledFuture<?> task;
+
+    public MaintenanceScheduler(RecordStore<InventoryItem> store, LocalDate lastRun) {
+        this.wheel = new TimingWheel<>((int) lastRun.toEpochDay());
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(InventoryItem item) {
+        schedule(item, wheel.getCurrentDay());
+    }
+
+    @Override
+    public synchronized void removed(InventoryItem item) {
+        scheduled.remove(item);
+    }
+
+    @Override
+    public synchronized void fieldChanged(InventoryItem item, int field, String oldValue, String newValue) {
+        if (field == InventoryItem.TANGGAL_MASUK && scheduled.containsKey(item)) {
+            schedule(item, wheel.getCurrentDay());
+        }
+    }
+
+    /**
+     * Putar roda sampai today dan kembalikan item yang jatuh tempo sejak terakhir dijalankan.
+     * Item yang terlewat beberapa periode hanya muncul sekali, lalu dijadwalkan ke periode
+     * setelah today.
+     */
+    public synchronized List<InventoryItem> advanceTo(LocalDate today) {
+        int day = (int) today.toEpochDay();
+        Set<InventoryItem> due = new LinkedHashSet<>();
+        for (Due entry : wheel.advanceTo(day)) {
+            Integer current = scheduled.get(entry.item);
+            if (current != null && current == entry.day && due.add(entry.item)) {
+                schedule(entry.item, day);
+            }
+        }
+        return new ArrayList<>(due);
+    }
+
+    /**
+     * Jalankan jadwal sampai today langsung pada list maintenance (saat boot atau mode batch,
+     * sebelum list tampil di UI). Pemanggil memanggil persistLastRun(today) setelah record
+     * yang dibuat tersimpan.
+     */
+    public List<MaintenanceRecord> runDue(LocalDate today, List<MaintenanceRecord> maintenance) {
+        return MaintenanceManager.createRoutineMaintenance(maintenance, advanceTo(today), today);
+    }
+
+    /**
+     * Periksa jadwal di executor latar setiap jam. Setiap hari baru memutar roda dan item yang
+     * jatuh tempo (boleh kosong) dikirim ke sink dalam satu batch bersama tanggalnya. Sink
+     * bertanggung jawab membuat record di thread pemilik list (misal lewat Platform.runLater)
+     * dan memanggil persistLastRun setelah record tersebut tersimpan.
+     */
+    public synchronized void start(ScheduledExecutorService executor, BiConsumer<List<InventoryItem>, LocalDate> sink) {
+        stop();
+        task = executor.scheduleWithFixedDelay(() -> {
+            LocalDate today = LocalDate.now();
+            if (isUpToDate(today)) {
+                return; // Masih hari yang sama
+            }
+            sink.accept(advanceTo(today), today);
+        }, 1, 60, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    private synchronized boolean isUpToDate(LocalDate today) {
+        return today.toEpochDay() <= wheel.getCurrentDay();
+    }
+
+    public synchronized int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    private void schedule(InventoryItem item, int afterDay) {
+        LocalDate acquired = item.getTanggalMasukDate();
+        if (acquired == null) {
+            scheduled.remove(item); // Tanggal masuk kosong/tidak valid: tidak dijadwalkan
+            return;
+        }
+        int day = (int) nextDue(acquired, LocalDate.ofEpochDay(afterDay)).toEpochDay();
+        scheduled.put(item, day);
+        wheel.schedule(day, new Due(item, day));
+    }
+
+    // Kelipatan 6 bulan pertama sejak tanggal masuk yang jatuh setelah after
+    static LocalDate nextDue(LocalDate acquired, LocalDate after) {
+        long periods = Math.max(1, ChronoUnit.MONTHS.between(acquired, after) / INTERVAL_MONTHS);
+        LocalDate due = acquired.plusMonths(periods * INTERVAL_MONTHS);
+        while (!due.isAfter(after)) {
+            periods++;
+            due = acquired.plusMonths(periods * INTERVAL_MONTHS);
+        }
+        return due;
+    }
+
+    /**
+     * Tanggal terakhir penjadwal dijalankan. Pada pemakaian pertama dipakai satu bulan
+     * sebelum today, sama dengan jendela pemeriksaan saat startup sebelumnya.
+     */
+    public static LocalDate loadLastRun(LocalDate today) {
+        File file = new File(STATE_FILE);
+        if (file.exists()) {
+            Properties props = new Properties();
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                props.load(reader);
+                String value = props.getProperty(LAST_RUN_KEY);
+                if (value != null) {
+                    LocalDate lastRun = LocalDate.parse(value.trim());
+                    return lastRun.isAfter(today) ? today : lastRun;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading " + STATE_FILE + ": " + e.getMessage());
+            }
+        }
+        return today.minusMonths(1);
+    }
+
+    // Simpan tanggal terakhir dijalankan; hanya setelah maintenance rutin sampai day tersimpan
+    public static synchronized void persistLastRun(LocalDate day) {
+        Properties props = new Properties();
+        props.setProperty(LAST_RUN_KEY, day.toString());
+        try (SnapshotWriter writer = new SnapshotWriter(STATE_FILE)) {
+            StringWriter text = new StringWriter();
+            props.store(text, "Penjadwal maintenance rutin");
+            writer.write(text.toString());
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving " + STATE_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Status laporan maintenance
+public enum MaintenanceStatus {
+    MENUNGGU_PENANGANAN("Menunggu Penanganan"),
+    DALAM_PROSES("Dalam Proses"),
+    SELESAI("Selesai");
+
+    private static final Map<String, MaintenanceStatus> BY_LABEL = new HashMap<>();
+    static {
+        for (MaintenanceStatus value : values()) {
+            BY_LABEL.put(value.label, value);
+        }
+    }
+
+    private final String label;
+
+    MaintenanceStatus(String label) {
+        this.label = label;
+    }
+
+    // Teks yang disimpan di CSV dan ditampilkan di UI
+    public String getLabel() {
+        return label;
+    }
+
+    // Maintenance yang belum selesai
+    public boolean isOpen() {
+        return this == MENUNGGU_PENANGANAN || this == DALAM_PROSES;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    // null jika label tidak dikenal (data lama / diedit manual)
+    public static MaintenanceStatus fromLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
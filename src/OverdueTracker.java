@@ -0,0 +1,113 @@
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Pendeteksi keterlambatan berbasis antrian prioritas. Setiap peminjaman berstatus
+ * Dipinjam masuk min-heap dengan kunci epoch day tanggal harus kembali, sehingga
+ * pemeriksaan hanya mengambil peminjaman yang baru lewat tenggat (O(k log n) untuk k
+ * peminjaman), bukan scan dan parse seluruh data setiap kali.
+ *
+ * Entri heap tidak pernah dihapus di tempat: saat record dikembalikan, dihapus, atau
+ * tanggal kembalinya diubah, entri lama dibiarkan dan dibuang ketika muncul di puncak
+ * heap (lazy deletion). Tanggal baru cukup dimasukkan sebagai entri baru.
+ */
+public class OverdueTracker implements RecordStore.Listener<BorrowRecord> {
+
+    private static final class Due {
+        private final int day;
+        private final BorrowRecord record;
+
+        private Due(int day, BorrowRecord record) {
+            this.day = day;
+            this.record = record;
+        }
+    }
+
+    private final PriorityQueue<Due> heap = new PriorityQueue<>(Comparator.comparingInt((Due due) -> due.day));
+    private final Set<BorrowRecord> live = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public OverdueTracker(RecordStore<BorrowRecord> store) {
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(BorrowRecord record) {
+        live.add(record);
+        schedule(record);
+    }
+
+    @Override
+    public synchronized void removed(BorrowRecord record) {
+        live.remove(record); // Entri heap-nya dibuang saat muncul di puncak
+    }
+
+    @Override
+    public synchronized void fieldChanged(BorrowRecord record, int field, String oldValue, String newValue) {
+        if (field == BorrowRecord.RETURN_DATE
+                || (field == BorrowRecord.STATUS && BorrowStatus.DIPINJAM.getLabel().equals(newValue))) {
+            schedule(record);
+        }
+    }
+
+    /**
+     * Tandai Terlambat semua peminjaman Dipinjam yang tenggatnya sudah lewat pada today
+     * dan kembalikan record yang baru berubah. Status diubah lewat setter, sehingga counter,
+     * index dan DirtyTracker ikut diperbarui.
+     */
+    public List<BorrowRecord> expire(LocalDate today) {
+        // Set: tanggal yang diubah lalu dikembalikan bisa meninggalkan dua entri berlaku
+        Set<BorrowRecord> expired = new LinkedHashSet<>();
+        int todayDay = (int) today.toEpochDay();
+        synchronized (this) {
+            while (!heap.isEmpty() && heap.peek().day < todayDay) {
+                Due due = heap.poll();
+                if (isCurrent(due)) {
+                    expired.add(due.record);
+                }
+            }
+            compactIfNeeded();
+        }
+        // Setter dipanggil di luar lock: listener lain ikut berjalan di thread ini
+        for (BorrowRecord record : expired) {
+            record.setStatus(BorrowStatus.TERLAMBAT.getLabel());
+        }
+        return new ArrayList<>(expired);
+    }
+
+    // Tenggat terdekat yang masih berlaku, null jika tidak ada peminjaman Dipinjam
+    public synchronized LocalDate getNextDueDate() {
+        while (!heap.isEmpty() && !isCurrent(heap.peek())) {
+            heap.poll();
+        }
+        return heap.isEmpty() ? null : LocalDate.ofEpochDay(heap.peek().day);
+    }
+
+    private void schedule(BorrowRecord record) {
+        int day = record.epochDay(BorrowRecord.RETURN_DATE);
+        if (day != CompactRecord.NO_DATE && BorrowStatus.DIPINJAM == record.getStatusValue()) {
+            heap.add(new Due(day, record));
+            compactIfNeeded();
+        }
+    }
+
+    // Entri masih berlaku jika record belum dihapus, masih Dipinjam dan tenggatnya belum diubah
+    private boolean isCurrent(Due due) {
+        return live.contains(due.record)
+            && BorrowStatus.DIPINJAM == due.record.getStatusValue()
+            && due.record.epochDay(BorrowRecord.RETURN_DATE) == due.day;
+    }
+
+    // Entri basi dengan tenggat jauh lama sampai di puncak; buang jika heap membengkak
+    private void compactIfNeeded() {
+        if (heap.size() > 64 && heap.size() > 2 * live.size()) {
+            List<Due> current = new ArrayList<>(heap.size());
+            for (Due due : heap) {
+                if (isCurrent(due)) {
+                    current.add(due);
+                }
+            }
+            heap.clear();
+            heap.addAll(current);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Loader CSV paralel untuk file besar (misal riwayat peminjaman bertahun-tahun).
+ * Isi file dibaca sekali ke buffer heap (tidak di-map, agar file bisa langsung ditimpa
+ * snapshot baru di Windows), dipotong menjadi beberapa chunk yang selalu berakhir di batas
+ * record (newline di luar quote; batasnya dicari paralel per segmen), lalu setiap chunk
+ * di-parse dengan CSVTokenizer di fork-join pool. Hasil digabung sesuai urutan file.
+ */
+public class ParallelCSVLoader {
+    // File kecil tidak perlu dipecah, overhead thread lebih besar dari parsing-nya
+    private static final int PARALLEL_THRESHOLD = 1024 * 1024;
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    public static <T> List<T> load(String fileName, Function<CSVTokenizer, T> factory) throws IOException {
+        ByteBuffer bytes = CSVTokenizer.readBytes(fileName);
+        int size = bytes.limit();
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        int chunkSize = size < PARALLEL_THRESHOLD ? size : Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4));
+
+        try {
+            List<int[]> chunks = splitChunks(bytes, chunkSize);
+            if (chunks.size() == 1) {
+                return parseChunk(bytes, chunks.get(0), factory);
+            }
+
+            List<Callable<List<T>>> tasks = new ArrayList<>(chunks.size());
+            for (int[] chunk : chunks) {
+                tasks.add(() -> parseChunk(bytes, chunk, factory));
+            }
+
+            List<T> result = new ArrayList<>();
+            for (Future<List<T>> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                result.addAll(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Loading " + fileName + " dibatalkan", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing " + fileName + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Hasil scan satu segmen nominal, untuk kedua kemungkinan state quote di awal segmen
+    private static final class Segment {
+        private boolean oddQuotes; // State quote di akhir segmen terbalik dari awalnya
+        private int cutOutside = -1; // Batas record pertama jika segmen dimulai di luar quote
+        private int cutInside = -1; // Batas record pertama jika segmen dimulai di dalam quote
+    }
+
+    /**
+     * Cari batas chunk tanpa scan serial seluruh file. Setelah header, file dibagi pada
+     * offset nominal setiap chunkSize byte. Setiap segmen di-scan paralel sekali: jumlah
+     * quote (paritas) dan newline pertama untuk kedua kemungkinan state quote di awal
+     * segmen. Gabungan paritas segmen sebelumnya menentukan state yang benar, sehingga
+     * batas chunk tetap newline pertama di luar quote setelah offset nominal.
+     * Mengembalikan pasangan [start, end) dalam byte.
+     */
+    private static List<int[]> splitChunks(ByteBuffer bytes, int chunkSize)
+            throws InterruptedException, ExecutionException {
+        List<int[]> chunks = new ArrayList<>();
+        int limit = bytes.limit();
+        int headerEnd = headerEnd(bytes);
+        if (headerEnd < 0 || headerEnd >= limit) {
+            chunks.add(new int[]{limit, limit}); // Hanya header
+            return chunks;
+        }
+
+        int count = (int) ((limit - headerEnd + (long) chunkSize - 1) / chunkSize);
+        List<Segment> segments = new ArrayList<>(count);
+        if (count == 1) {
+            segments.add(null); // Satu chunk, tidak ada batas yang perlu dicari
+        } else {
+            List<Callable<Segment>> tasks = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                int from = headerEnd + k * chunkSize;
+                int to = (int) Math.min(limit, (long) from + chunkSize);
+                tasks.add(() -> scanSegment(bytes, from, to));
+            }
+            for (Future<Segment> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                segments.add(future.get());
+            }
+        }
+
+        // Segmen pertama dimulai tepat setelah header, pasti di luar quote
+        int start = headerEnd;
+        boolean inQuotes = false;
+        for (int k = 1; k < count; k++) {
+            Segment previous = segments.get(k - 1);
+            inQuotes ^= previous.oddQuotes;
+            Segment segment = segments.get(k);
+            int cut = inQuotes ? segment.cutInside : segment.cutOutside;
+            // Tanpa newline yang cocok di segmen ini, chunk berlanjut ke segmen berikutnya
+            if (cut > start) {
+                chunks.add(new int[]{start, cut});
+                start = cut;
+            }
+        }
+        if (start < limit) {
+            chunks.add(new int[]{start, limit});
+        }
+        return chunks;
+    }
+
+    // Posisi setelah newline pertama di luar quote, atau -1 jika file hanya satu baris
+    private static int headerEnd(ByteBuffer bytes) {
+        boolean inQuotes = false;
+        for (int i = 0; i < bytes.limit(); i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static Segment scanSegment(ByteBuffer bytes, int from, int to) {
+        Segment segment = new Segment();
+        boolean odd = false;
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                odd = !odd;
+            } else if (b == '\n') {
+                if (!odd && segment.cutOutside < 0) {
+                    segment.cutOutside = i + 1;
+                } else if (odd && segment.cutInside < 0) {
+                    segment.cutInside = i + 1;
+                }
+            }
+        }
+        segment.oddQuotes = odd;
+        return segment;
+    }
+
+    private static <T> List<T> parseChunk(ByteBuffer bytes, int[] chunk, Function<CSVTokenizer, T> factory) {
+        List<T> records = new ArrayList<>();
+        if (chunk[1] <= chunk[0]) {
+            return records;
+        }
+        // Duplicate agar posisi/limit tidak bentrok antar thread
+        ByteBuffer view = bytes.duplicate();
+        view.position(chunk[0]).limit(chunk[1]);
+        CSVTokenizer tokenizer = new CSVTokenizer(view.slice());
+        while (tokenizer.next()) {
+            T record = factory.apply(tokenizer);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
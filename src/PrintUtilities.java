@@ -7,8 +7,11 @@ import javafx.scene.text.TextFlow;
 import javafx.stage.Stage;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -105,7 +108,7 @@ public class PrintUtilities {
         try {
             File file = new File(directory, filename + ".txt");
             
-            try (FileWriter writer = new FileWriter(file)) {
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
                 writer.write(content);
             }
             
@@ -122,91 +125,104 @@ public class PrintUtilities {
      */
     public static String generateHTMLForPDF(String textContent, String title) {
         StringBuilder html = new StringBuilder();
-        
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"id\">\n<head>\n");
-        html.append("<meta charset=\"UTF-8\">\n");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("<title>").append(title).append("</title>\n");
+        try {
+            writeHTMLForPDF(textContent, title, html);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder tidak pernah melempar IOException
+        }
+        return html.toString();
+    }
+    
+    /**
+     * Tulis HTML untuk export PDF langsung ke out; teks di-escape sambil ditulis
+     */
+    private static void writeHTMLForPDF(CharSequence textContent, String title, Appendable out) throws IOException {
+        out.append("<!DOCTYPE html>\n");
+        out.append("<html lang=\"id\">\n<head>\n");
+        out.append("<meta charset=\"UTF-8\">\n");
+        out.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
+        out.append("<title>");
+        ReportSink.escapeHtml(title, out, false);
+        out.append("</title>\n");
         
         // Enhanced CSS for better PDF output
-        html.append("<style>\n");
-        html.append("@page {\n");
-        html.append("  size: A4;\n");
-        html.append("  margin: 2cm 1.5cm;\n");
-        html.append("}\n");
-        html.append("body {\n");
-        html.append("  font-family: 'Courier New', 'DejaVu Sans Mono', monospace;\n");
-        html.append("  font-size: 11px;\n");
-        html.append("  line-height: 1.4;\n");
-        html.append("  color: #000;\n");
-        html.append("  margin: 0;\n");
-        html.append("  padding: 0;\n");
-        html.append("}\n");
-        html.append(".header {\n");
-        html.append("  text-align: center;\n");
-        html.append("  margin-bottom: 30px;\n");
-        html.append("  border-bottom: 2px solid #000;\n");
-        html.append("  padding-bottom: 15px;\n");
-        html.append("}\n");
-        html.append(".header h1 {\n");
-        html.append("  font-size: 18px;\n");
-        html.append("  font-weight: bold;\n");
-        html.append("  margin: 0 0 10px 0;\n");
-        html.append("}\n");
-        html.append(".header h2 {\n");
-        html.append("  font-size: 14px;\n");
-        html.append("  font-weight: bold;\n");
-        html.append("  margin: 0;\n");
-        html.append("}\n");
-        html.append(".content {\n");
-        html.append("  white-space: pre-line;\n");
-        html.append("  font-family: 'Courier New', monospace;\n");
-        html.append("}\n");
-        html.append(".footer {\n");
-        html.append("  margin-top: 40px;\n");
-        html.append("  text-align: center;\n");
-        html.append("  font-size: 10px;\n");
-        html.append("  color: #666;\n");
-        html.append("  border-top: 1px solid #ccc;\n");
-        html.append("  padding-top: 15px;\n");
-        html.append("}\n");
-        html.append("@media print {\n");
-        html.append("  body { margin: 0; }\n");
-        html.append("  .no-print { display: none; }\n");
-        html.append("}\n");
-        html.append("</style>\n");
-        html.append("</head>\n<body>\n");
+        out.append("<style>\n");
+        out.append("@page {\n");
+        out.append("  size: A4;\n");
+        out.append("  margin: 2cm 1.5cm;\n");
+        out.append("}\n");
+        out.append("body {\n");
+        out.append("  font-family: 'Courier New', 'DejaVu Sans Mono', monospace;\n");
+        out.append("  font-size: 11px;\n");
+        out.append("  line-height: 1.4;\n");
+        out.append("  color: #000;\n");
+        out.append("  margin: 0;\n");
+        out.append("  padding: 0;\n");
+        out.append("}\n");
+        out.append(".header {\n");
+        out.append("  text-align: center;\n");
+        out.append("  margin-bottom: 30px;\n");
+        out.append("  border-bottom: 2px solid #000;\n");
+        out.append("  padding-bottom: 15px;\n");
+        out.append("}\n");
+        out.append(".header h1 {\n");
+        out.append("  font-size: 18px;\n");
+        out.append("  font-weight: bold;\n");
+        out.append("  margin: 0 0 10px 0;\n");
+        out.append("}\n");
+        out.append(".header h2 {\n");
+        out.append("  font-size: 14px;\n");
+        out.append("  font-weight: bold;\n");
+        out.append("  margin: 0;\n");
+        out.append("}\n");
+        out.append(".content {\n");
+        out.append("  white-space: pre-line;\n");
+        out.append("  font-family: 'Courier New', monospace;\n");
+        out.append("}\n");
+        out.append(".footer {\n");
+        out.append("  margin-top: 40px;\n");
+        out.append("  text-align: center;\n");
+        out.append("  font-size: 10px;\n");
+        out.append("  color: #666;\n");
+        out.append("  border-top: 1px solid #ccc;\n");
+        out.append("  padding-top: 15px;\n");
+        out.append("}\n");
+        out.append("@media print {\n");
+        out.append("  body { margin: 0; }\n");
+        out.append("  .no-print { display: none; }\n");
+        out.append("}\n");
+        out.append("</style>\n");
+        out.append("</head>\n<body>\n");
         
         // Header
-        html.append("<div class=\"header\">\n");
-        html.append("<h1>LAB INVENTORY SYSTEM</h1>\n");
-        html.append("<h2>").append(title).append("</h2>\n");
-        html.append("</div>\n");
+        out.append("<div class=\"header\">\n");
+        out.append("<h1>LAB INVENTORY SYSTEM</h1>\n");
+        out.append("<h2>");
+        ReportSink.escapeHtml(title, out, false);
+        out.append("</h2>\n");
+        out.append("</div>\n");
         
         // Content
-        html.append("<div class=\"content\">\n");
-        html.append(escapeHtml(textContent));
-        html.append("</div>\n");
+        out.append("<div class=\"content\">\n");
+        ReportSink.escapeHtml(textContent, out, false);
+        out.append("</div>\n");
         
         // Footer
-        html.append("<div class=\"footer\">\n");
-        html.append("<p>Generated by Lab Inventory System - ");
-        html.append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy")));
-        html.append("</p>\n");
-        html.append("</div>\n");
+        out.append("<div class=\"footer\">\n");
+        out.append("<p>Generated by Lab Inventory System - ");
+        out.append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy")));
+        out.append("</p>\n");
+        out.append("</div>\n");
         
         // Print instructions (hidden when printing)
-        html.append("<div class=\"no-print\" style=\"position: fixed; top: 10px; right: 10px; background: #f0f0f0; padding: 10px; border: 1px solid #ccc; border-radius: 5px;\">\n");
-        html.append("<strong>Untuk menyimpan sebagai PDF:</strong><br>\n");
-        html.append("1. Tekan Ctrl+P<br>\n");
-        html.append("2. Pilih 'Save as PDF'<br>\n");
-        html.append("3. Klik Save\n");
-        html.append("</div>\n");
-        
-        html.append("</body>\n</html>");
+        out.append("<div class=\"no-print\" style=\"position: fixed; top: 10px; right: 10px; background: #f0f0f0; padding: 10px; border: 1px solid #ccc; border-radius: 5px;\">\n");
+        out.append("<strong>Untuk menyimpan sebagai PDF:</strong><br>\n");
+        out.append("1. Tekan Ctrl+P<br>\n");
+        out.append("2. Pilih 'Save as PDF'<br>\n");
+        out.append("3. Klik Save\n");
+        out.append("</div>\n");
         
-        return html.toString();
+        out.append("</body>\n</html>");
     }
     
     /**
@@ -215,10 +231,9 @@ public class PrintUtilities {
     public static boolean exportToHTML(String content, String title, String filename, File directory) {
         try {
             File file = new File(directory, filename + ".html");
-            String htmlContent = generateHTMLForPDF(content, title);
             
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.write(htmlContent);
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writeHTMLForPDF(content, title, writer);
             }
             
             return true;
@@ -229,19 +244,6 @@ public class PrintUtilities {
         }
     }
     
-    /**
-     * Escape HTML characters untuk keamanan
-     */
-    private static String escapeHtml(String text) {
-        if (text == null) return "";
-        
-        return text.replace("&", "&amp;")
-                  .replace("<", "&lt;")
-                  .replace(">", "&gt;")
-                  .replace("\"", "&quot;")
-                  .replace("'", "&#x27;");
-    }
-    
     /**
      * Generate filename berdasarkan jenis laporan dan tanggal
      */
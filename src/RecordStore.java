@@ -0,0 +1,79 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Hub perubahan untuk satu list record. Record yang masuk ke list di-attach ke store
+ * ini sehingga setter-nya melaporkan perubahan field; record yang keluar di-detach.
+ * Semua perubahan (tambah, hapus, ubah field) diteruskan ke listener terdaftar
+ * tanpa perlu scan ulang list.
+ */
+public class RecordStore<T extends CompactRecord> {
+
+    public interface Listener<T> {
+        default void added(T record) {
+        }
+
+        default void removed(T record) {
+        }
+
+        default void fieldChanged(T record, int field, String oldValue, String newValue) {
+        }
+    }
+
+    private final ObservableList<T> items;
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    public RecordStore(ObservableList<T> items) {
+        this.items = items;
+        for (T record : items) {
+            record.attachTo(this);
+        }
+        items.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    continue; // Urutan berubah, isi tetap sama
+                }
+                for (T removed : change.getRemoved()) {
+                    removed.detachFrom(this);
+                    for (Listener<T> listener : listeners) {
+                        listener.removed(removed);
+                    }
+                }
+                for (T added : change.getAddedSubList()) {
+                    added.attachTo(this);
+                    for (Listener<T> listener : listeners) {
+                        listener.added(added);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Daftarkan listener. Record yang sudah ada langsung dikirim sebagai added(),
+     * sehingga listener yang datang belakangan tetap punya keadaan lengkap.
+     */
+    public void addListener(Listener<T> listener) {
+        for (T record : items) {
+            listener.added(record);
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    void fireFieldChanged(CompactRecord record, int field, String oldValue, String newValue) {
+        for (Listener<T> listener : listeners) {
+            listener.fieldChanged((T) record, field, oldValue, newValue);
+        }
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+}
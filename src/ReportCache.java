@@ -0,0 +1,126 @@
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache teks laporan per (jenis laporan, tanggal mulai, tanggal akhir, versi data), dengan
+ * eviction LRU. Preview, cetak dan export laporan yang sama memakai teks yang sudah jadi,
+ * tanpa menyusun ulang.
+ *
+ * Cache didaftarkan ke ketiga RecordStore: setiap tambah/hapus record dan setiap perubahan
+ * field menaikkan versi data dan mengosongkan cache. Laporan yang lebih panjang dari
+ * MAX_ENTRY_CHARS tidak disimpan dan tetap ditulis streaming setiap kali.
+ */
+public class ReportCache {
+    public static final int MAX_ENTRIES = 16;
+    public static final int MAX_ENTRY_CHARS = 1_000_000;
+    private static final long MAX_TOTAL_CHARS = 4_000_000L;
+
+    private static final class Key {
+        private final String reportType;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDate printDate; // Header laporan memuat tanggal cetak
+        private final long version;
+
+        private Key(String reportType, LocalDate startDate, LocalDate endDate, LocalDate printDate, long version) {
+            this.reportType = reportType;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.printDate = printDate;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return version == key.version && reportType.equals(key.reportType)
+                && Objects.equals(startDate, key.startDate) && Objects.equals(endDate, key.endDate)
+                && printDate.equals(key.printDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reportType, startDate, endDate, printDate, version);
+        }
+    }
+
+    // Urutan akses: entri paling lama tidak dipakai ada di depan
+    private final Map<Key, String> entries = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true);
+    private long totalChars;
+    private long version;
+
+    public ReportCache(RecordStore<InventoryItem> inventory, RecordStore<BorrowRecord> borrows,
+                       RecordStore<MaintenanceRecord> maintenance) {
+        inventory.addListener(new Invalidator<>());
+        borrows.addListener(new Invalidator<>());
+        maintenance.addListener(new Invalidator<>());
+    }
+
+    // Setiap perubahan store membuat semua laporan yang tersimpan usang
+    private final class Invalidator<T> implements RecordStore.Listener<T> {
+        @Override
+        public void added(T record) {
+            invalidate();
+        }
+
+        @Override
+        public void removed(T record) {
+            invalidate();
+        }
+
+        @Override
+        public void fieldChanged(T record, int field, String oldValue, String newValue) {
+            invalidate();
+        }
+    }
+
+    private synchronized void invalidate() {
+        version++;
+        if (!entries.isEmpty()) {
+            entries.clear();
+            totalChars = 0;
+        }
+    }
+
+    // Teks laporan yang tersimpan untuk versi data saat ini, atau null
+    public synchronized String get(String reportType, LocalDate startDate, LocalDate endDate) {
+        return entries.get(key(reportType, startDate, endDate));
+    }
+
+    /**
+     * Simpan teks laporan untuk versi data saat build dimulai. Jika data berubah selama
+     * laporan disusun, teks sudah usang dan tidak disimpan.
+     */
+    public synchronized void put(String reportType, LocalDate startDate, LocalDate endDate, long builtAtVersion,
+                                 String text) {
+        if (builtAtVersion != version || text.length() > MAX_ENTRY_CHARS) {
+            return;
+        }
+        String previous = entries.put(key(reportType, startDate, endDate), text);
+        totalChars += text.length() - (previous != null ? previous.length() : 0);
+
+        Iterator<String> eldest = entries.values().iterator();
+        while (entries.size() > MAX_ENTRIES || totalChars > MAX_TOTAL_CHARS) {
+            totalChars -= eldest.next().length();
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Key key(String reportType, LocalDate startDate, LocalDate endDate) {
+        return new Key(reportType, startDate, endDate, LocalDate.now(), version);
+    }
+}
@@ -0,0 +1,547 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Penyusun isi laporan tanpa ketergantungan ke UI JavaFX. Dipakai dialog ReportGenerator
+ * untuk preview, cetak dan export, dan oleh BatchRunner untuk export laporan tanpa tampilan.
+ * Semua angka diambil dari counter live dan index yang sudah ada.
+ *
+ * Setiap section menulis record satu per satu ke ReportSink (TXT, HTML atau CSV), sehingga
+ * export ke file tidak pernah membentuk seluruh laporan sebagai satu String.
+ *
+ * Section dihitung bersamaan di executor (default ForkJoinPool common pool), lalu ditulis
+ * berurutan di thread pemanggil. Counter dibaca di awal laporan, dan daftar record beserta
+ * ringkasannya memakai list yang sama. Store hanya diubah dari thread pemanggil (thread JavaFX
+ * atau batch), yang tidak mengubah data selama laporan ditulis, sehingga semua section melihat
+ * keadaan data yang sama.
+ *
+ * Dengan ReportCache, teks laporan yang sudah disusun dipakai ulang oleh preview, cetak dan
+ * export TXT/HTML selama data belum berubah. Cache diisi sambil laporan ditulis (build, cetak,
+ * export); preview yang belum ada di cache tetap berhenti setelah batas karakternya.
+ */
+public class ReportContentBuilder {
+    public static final String[] REPORT_TYPES = {
+        "Laporan Inventaris Lengkap",
+        "Laporan Peminjaman",
+        "Laporan Maintenance",
+        "Laporan Status Alat",
+        "Laporan Ringkasan"
+    };
+
+    private final List<InventoryItem> inventoryData;
+    private final List<BorrowRecord> borrowData;
+    private final List<MaintenanceRecord> maintenanceData;
+    private final StoreCounters counters;
+    private final SecondaryIndex inventoryIndex;
+    private final DateRangeIndex<BorrowRecord> borrowDates;
+    private final DateRangeIndex<MaintenanceRecord> maintenanceDates;
+    private final ReportCache cache; // null: setiap laporan selalu disusun ulang
+    private final Executor executor;
+
+    public ReportContentBuilder(List<InventoryItem> inventoryData, List<BorrowRecord> borrowData,
+                                List<MaintenanceRecord> maintenanceData, StoreCounters counters,
+                                SecondaryIndex inventoryIndex, DateRangeIndex<BorrowRecord> borrowDates,
+                                DateRangeIndex<MaintenanceRecord> maintenanceDates) {
+        this(inventoryData, borrowData, maintenanceData, counters, inventoryIndex, borrowDates, maintenanceDates, null);
+    }
+    
+    public ReportContentBuilder(List<InventoryItem> inventoryData, List<BorrowRecord> borrowData,
+                                List<MaintenanceRecord> maintenanceData, StoreCounters counters,
+                                SecondaryIndex inventoryIndex, DateRangeIndex<BorrowRecord> borrowDates,
+                                DateRangeIndex<MaintenanceRecord> maintenanceDates, ReportCache cache) {
+        this(inventoryData, borrowData, maintenanceData, counters, inventoryIndex, borrowDates, maintenanceDates,
+            cache, ForkJoinPool.commonPool());
+    }
+    
+    public ReportContentBuilder(List<InventoryItem> inventoryData, List<BorrowRecord> borrowData,
+                                List<MaintenanceRecord> maintenanceData, StoreCounters counters,
+                                SecondaryIndex inventoryIndex, DateRangeIndex<BorrowRecord> borrowDates,
+                                DateRangeIndex<MaintenanceRecord> maintenanceDates, ReportCache cache,
+                                Executor executor) {
+        this.inventoryData = inventoryData;
+        this.borrowData = borrowData;
+        this.maintenanceData = maintenanceData;
+        this.counters = counters;
+        this.inventoryIndex = inventoryIndex;
+        this.borrowDates = borrowDates;
+        this.maintenanceDates = maintenanceDates;
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    // Nama file export default, misal Laporan_Peminjaman_20250726.txt
+    public static String fileName(String reportType, String extension) {
+        return reportType.replace(" ", "_") + "_" +
+            LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + extension;
+    }
+    
+    // Isi laporan teks lengkap dengan header dan footer (untuk laporan kecil dan tes)
+    public String build(String reportType, LocalDate startDate, LocalDate endDate) {
+        String cached = cache != null ? cache.get(reportType, startDate, endDate) : null;
+        if (cached != null) {
+            return cached;
+        }
+        long version = cache != null ? cache.getVersion() : 0;
+        StringBuilder content = new StringBuilder();
+        try {
+            writeReport(reportType, startDate, endDate, ReportSink.ofText(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder tidak pernah melempar IOException
+        }
+        String text = content.toString();
+        if (cache != null) {
+            cache.put(reportType, startDate, endDate, version, text);
+        }
+        return text;
+    }
+    
+    // Export langsung ke file (txt, html atau csv) lewat buffer, tanpa membentuk isi laporan di memori
+    public void export(String reportType, LocalDate startDate, LocalDate endDate, String format, File file)
+            throws IOException {
+        try (ReportSink sink = ReportSink.forFormat(format,
+                Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), reportType)) {
+            write(reportType, startDate, endDate, sink);
+        }
+    }
+    
+    // Awal laporan teks: dari cache jika ada, selain itu berhenti menulis setelah maxChars karakter
+    public String preview(String reportType, LocalDate startDate, LocalDate endDate, int maxChars) {
+        String cached = cache != null ? cache.get(reportType, startDate, endDate) : null;
+        if (cached != null) {
+            return cached.length() > maxChars
+                ? cached.substring(0, maxChars) + "\n\n... (Preview terbatas)" : cached;
+        }
+        BoundedBuffer buffer = new BoundedBuffer(maxChars);
+        try {
+            writeReport(reportType, startDate, endDate, ReportSink.ofText(buffer));
+        } catch (IOException e) {
+            if (e != BoundedBuffer.FULL) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer + "\n\n... (Preview terbatas)";
+        }
+        return buffer.toString();
+    }
+    
+    /**
+     * Tulis laporan lengkap (header, isi, footer) ke sink. Teks dari cache dipakai jika ada;
+     * jika belum, teks disalin ke cache sambil laporan ditulis, selama panjangnya masih di
+     * bawah batas cache.
+     */
+    public void write(String reportType, LocalDate startDate, LocalDate endDate, ReportSink sink) throws IOException {
+        if (cache == null) {
+            writeReport(reportType, startDate, endDate, sink);
+            return;
+        }
+        String cached = sink.rendersText() ? cache.get(reportType, startDate, endDate) : null;
+        if (cached != null) {
+            sink.begin();
+            sink.text(cached);
+            sink.end();
+            return;
+        }
+        long version = cache.getVersion();
+        CapturingSink capture = new CapturingSink(sink, ReportCache.MAX_ENTRY_CHARS);
+        writeReport(reportType, startDate, endDate, capture);
+        String text = capture.getText();
+        if (text != null) {
+            cache.put(reportType, startDate, endDate, version, text);
+        }
+    }
+    
+    private void writeReport(String reportType, LocalDate startDate, LocalDate endDate, ReportSink sink)
+            throws IOException {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+        sink.begin();
+        
+        // Header
+        sink.text("==========================================\n");
+        sink.text("         LAB INVENTORY SYSTEM\n");
+        sink.text("==========================================\n\n");
+        sink.text(reportType + "\n");
+        sink.text("Tanggal Cetak: " + LocalDate.now().format(formatter) + "\n");
+        
+        if (startDate != null && endDate != null) {
+            sink.text("Periode: " + startDate.format(formatter) + " - " + endDate.format(formatter) + "\n");
+        }
+        sink.text("\n");
+        
+        List<CompletableFuture<Section>> sections = new ArrayList<>();
+        switch (reportType) {
+            case "Laporan Inventaris Lengkap":
+                generateInventoryReport(sections);
+                break;
+            case "Laporan Peminjaman":
+                generateBorrowingReport(sections, startDate, endDate);
+                break;
+            case "Laporan Maintenance":
+                generateMaintenanceReport(sections, startDate, endDate);
+                break;
+            case "Laporan Status Alat":
+                generateStatusReport(sections);
+                break;
+            case "Laporan Ringkasan":
+                generateSummaryReport(sections, startDate, endDate);
+                break;
+        }
+        
+        // Section ditulis sesuai urutan; section berikutnya tetap dihitung selagi yang ini ditulis
+        for (CompletableFuture<Section> section : sections) {
+            join(section).writeTo(sink);
+        }
+        
+        sink.text("\n==========================================\n");
+        sink.text("Generated by Lab Inventory System\n");
+        sink.text("==========================================");
+        sink.end();
+    }
+    
+    private void generateInventoryReport(List<CompletableFuture<Section>> sections) {
+        long total = counters.getInventoryTotal();
+        long available = counters.count(ItemStatus.TERSEDIA);
+        long borrowed = counters.count(ItemStatus.DIPINJAM);
+        long maintenance = counters.count(ItemStatus.MAINTENANCE);
+        
+        sections.add(fork(() -> {
+            // Kelompok per kategori langsung dari index sekunder, tanpa scan ulang
+            Map<String, List<InventoryItem>> byCategory = inventoryIndex.groupBy(InventoryItem.KATEGORI);
+            return sink -> {
+                sink.text("DAFTAR INVENTARIS\n");
+                sink.text("------------------------------------------\n");
+                sink.columns("ID", "Nama", "Kategori", "Merk", "Kondisi", "Status");
+                for (Map.Entry<String, List<InventoryItem>> entry : byCategory.entrySet()) {
+                    sink.text("\n" + entry.getKey() + ":\n");
+                    for (InventoryItem item : entry.getValue()) {
+                        sink.row(String.format("  %s - %s (%s) - %s - %s\n",
+                            item.getId(), item.getNama(), item.getMerk(), item.getKondisi(), item.getStatus()),
+                            item.getId(), item.getNama(), entry.getKey(), item.getMerk(), item.getKondisi(), item.getStatus());
+                    }
+                }
+            };
+        }));
+        
+        sections.add(CompletableFuture.completedFuture(sink -> {
+            sink.text("\nRINGKASAN:\n");
+            sink.columns("Ringkasan", "Jumlah");
+            sink.value("Total Item", total);
+            sink.value("Tersedia", available);
+            sink.value("Dipinjam", borrowed);
+            sink.value("Maintenance", maintenance);
+        }));
+    }
+    
+    private void generateBorrowingReport(List<CompletableFuture<Section>> sections, LocalDate startDate, LocalDate endDate) {
+        // Periode diambil langsung dari index tanggal pinjam, urut tanggal. Daftar dan
+        // ringkasan memakai list yang sama, sehingga angkanya selalu cocok.
+        CompletableFuture<List<BorrowRecord>> records = CompletableFuture.supplyAsync(() ->
+            startDate == null || endDate == null
+                ? new ArrayList<>(borrowData)
+                : borrowDates.range(BorrowRecord.BORROW_DATE, startDate, endDate), executor);
+        
+        sections.add(records.thenApply(filteredRecords -> sink -> {
+            sink.text("LAPORAN PEMINJAMAN\n");
+            sink.text("------------------------------------------\n");
+            sink.columns("ID", "Alat", "Peminjam", "Tipe", "Tanggal Pinjam", "Tanggal Kembali", "Status");
+            // Setiap record langsung ditulis ke sink, tanpa disusun dulu di memori
+            for (BorrowRecord record : filteredRecords) {
+                sink.row(String.format("%s - %s\n  Peminjam: %s (%s)\n  Tanggal: %s - %s\n  Status: %s\n\n",
+                    record.getBorrowId(), record.getInventoryName(),
+                    record.getBorrowerName(), record.getBorrowerType(),
+                    record.getBorrowDate(), record.getReturnDate(),
+                    record.getStatus()),
+                    record.getBorrowId(), record.getInventoryName(), record.getBorrowerName(), record.getBorrowerType(),
+                    record.getBorrowDate(), record.getReturnDate(), record.getStatus());
+            }
+        }));
+        
+        sections.add(records.thenApplyAsync(filteredRecords -> {
+            // Record per periode tidak punya counter live: hitung dalam satu pass
+            Map<BorrowStatus, Long> byStatus = EnumCounter.tally(filteredRecords, BorrowStatus.class, BorrowRecord::getStatusValue);
+            return sink -> {
+                sink.text("RINGKASAN:\n");
+                sink.columns("Ringkasan", "Jumlah");
+                sink.value("Total Peminjaman", filteredRecords.size());
+                sink.value("Aktif", byStatus.get(BorrowStatus.DIPINJAM));
+                sink.value("Selesai", byStatus.get(BorrowStatus.DIKEMBALIKAN));
+                sink.value("Terlambat", byStatus.get(BorrowStatus.TERLAMBAT));
+            };
+        }, executor));
+    }
+    
+    private void generateMaintenanceReport(List<CompletableFuture<Section>> sections, LocalDate startDate, LocalDate endDate) {
+        // Periode diambil langsung dari index tanggal lapor, urut tanggal
+        CompletableFuture<List<MaintenanceRecord>> records = CompletableFuture.supplyAsync(() ->
+            startDate == null || endDate == null
+                ? new ArrayList<>(maintenanceData)
+                : maintenanceDates.range(MaintenanceRecord.REPORTED_DATE, startDate, endDate), executor);
+        
+        sections.add(records.thenApply(filteredRecords -> sink -> {
+            sink.text("LAPORAN MAINTENANCE\n");
+            sink.text("------------------------------------------\n");
+            sink.columns("ID", "Deskripsi", "Alat", "Jenis", "Prioritas", "Status", "Teknisi", "Biaya");
+            for (MaintenanceRecord record : filteredRecords) {
+                String technician = record.getTechnician().isEmpty() ? "-" : record.getTechnician();
+                sink.row(String.format("%s - %s\n  Alat: %s\n  Jenis: %s\n  Prioritas: %s\n  Status: %s\n  Teknisi: %s\n  Biaya: %s\n\n",
+                    record.getMaintenanceId(), record.getDescription(),
+                    record.getInventoryName(), record.getIssueType(),
+                    record.getPriority(), record.getStatus(),
+                    technician,
+                    record.getCost().isEmpty() ? "-" : "Rp " + record.getCost()),
+                    record.getMaintenanceId(), record.getDescription(), record.getInventoryName(), record.getIssueType(),
+                    record.getPriority(), record.getStatus(), technician, record.getCost());
+            }
+        }));
+        
+        sections.add(records.thenApplyAsync(filteredRecords -> {
+            double totalCost = MaintenanceManager.getTotalMaintenanceCost(filteredRecords);
+            Map<MaintenanceStatus, Long> byStatus = EnumCounter.tally(filteredRecords, MaintenanceStatus.class, MaintenanceRecord::getStatusValue);
+            return sink -> {
+                sink.text("RINGKASAN:\n");
+                sink.columns("Ringkasan", "Jumlah");
+                sink.value("Total Laporan", filteredRecords.size());
+                sink.value("Pending", byStatus.get(MaintenanceStatus.MENUNGGU_PENANGANAN));
+                sink.value("Dalam Proses", byStatus.get(MaintenanceStatus.DALAM_PROSES));
+                sink.value("Selesai", byStatus.get(MaintenanceStatus.SELESAI));
+                sink.value("Total Biaya", "Rp " + String.format("%,.0f", totalCost));
+            };
+        }, executor));
+    }
+    
+    private void generateStatusReport(List<CompletableFuture<Section>> sections) {
+        Map<ItemStatus, Long> byStatus = counters.byItemStatus();
+        Map<String, Long> byCondition = counters.byKondisi();
+        Map<String, Long> byLocation = counters.byLokasi();
+        
+        sections.add(CompletableFuture.completedFuture(sink -> {
+            sink.text("LAPORAN STATUS ALAT\n");
+            sink.text("------------------------------------------\n");
+            
+            sink.text("STATUS KETERSEDIAAN:\n");
+            sink.columns("Status", "Jumlah");
+            for (Map.Entry<ItemStatus, Long> entry : byStatus.entrySet()) {
+                if (entry.getValue() > 0) {
+                    sink.value("  " + entry.getKey(), entry.getValue());
+                }
+            }
+            
+            sink.text("\nKONDISI ALAT:\n");
+            sink.columns("Kondisi", "Jumlah");
+            for (Map.Entry<String, Long> entry : byCondition.entrySet()) {
+                sink.value("  " + entry.getKey(), entry.getValue());
+            }
+            
+            sink.text("\nLOKASI ALAT:\n");
+            sink.columns("Lokasi", "Jumlah");
+            for (Map.Entry<String, Long> entry : byLocation.entrySet()) {
+                sink.value("  " + entry.getKey(), entry.getValue());
+            }
+        }));
+        
+        List<InventoryItem> items = new ArrayList<>(inventoryData);
+        sections.add(fork(() -> {
+            List<InventoryItem> problems = new ArrayList<>();
+            for (InventoryItem item : items) {
+                if ("Rusak".equals(item.getKondisi()) || "Maintenance".equals(item.getStatus())) {
+                    problems.add(item);
+                }
+            }
+            return sink -> {
+                sink.text("\nALAT BERMASALAH:\n");
+                sink.columns("ID", "Nama");
+                for (InventoryItem item : problems) {
+                    sink.row("  " + item.getId() + " - " + item.getNama() + "\n", item.getId(), item.getNama());
+                }
+            };
+        }));
+    }
+    
+    private void generateSummaryReport(List<CompletableFuture<Section>> sections, LocalDate startDate, LocalDate endDate) {
+        long total = counters.getInventoryTotal();
+        long available = counters.count(ItemStatus.TERSEDIA);
+        long borrowed = counters.count(ItemStatus.DIPINJAM);
+        long inMaintenance = counters.count(ItemStatus.MAINTENANCE);
+        long activeBorrows = counters.count(BorrowStatus.DIPINJAM);
+        long overdueBorrows = counters.count(BorrowStatus.TERLAMBAT);
+        long pendingMaintenance = counters.count(MaintenanceStatus.MENUNGGU_PENANGANAN);
+        long inProgressMaintenance = counters.count(MaintenanceStatus.DALAM_PROSES);
+        
+        // Inventory & borrowing summary
+        sections.add(CompletableFuture.completedFuture(sink -> {
+            sink.text("LAPORAN RINGKASAN\n");
+            sink.text("------------------------------------------\n");
+            sink.columns("Ringkasan", "Jumlah");
+            
+            sink.text("INVENTARIS:\n");
+            sink.value("  Total Item", total);
+            sink.value("  Tersedia", available);
+            sink.value("  Dipinjam", borrowed);
+            sink.value("  Maintenance", inMaintenance);
+            sink.text("\n");
+            
+            sink.text("PEMINJAMAN:\n");
+            sink.value("  Aktif", activeBorrows);
+            sink.value("  Terlambat", overdueBorrows);
+            sink.text("\n");
+        }));
+        
+        // Maintenance summary; maintenance selesai per periode dihitung di executor
+        sections.add(fork(() -> {
+            List<MaintenanceRecord> periodRecords = startDate != null && endDate != null
+                ? MaintenanceManager.getCompletedMaintenanceInRange(maintenanceDates, startDate, endDate)
+                : null;
+            double totalCost = periodRecords != null ? MaintenanceManager.getTotalMaintenanceCost(periodRecords) : 0;
+            return sink -> {
+                sink.text("MAINTENANCE:\n");
+                sink.value("  Pending", pendingMaintenance);
+                sink.value("  Dalam Proses", inProgressMaintenance);
+                if (periodRecords != null) {
+                    sink.value("  Selesai (Periode)", periodRecords.size());
+                    sink.value("  Biaya (Periode)", "Rp " + String.format("%,.0f", totalCost));
+                }
+            };
+        }));
+    }
+    
+    private CompletableFuture<Section> fork(Supplier<Section> section) {
+        return CompletableFuture.supplyAsync(section, executor);
+    }
+    
+    private static Section join(CompletableFuture<Section> section) {
+        try {
+            return section.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+    
+    // Satu bagian laporan yang sudah dihitung, tinggal ditulis ke sink
+    private interface Section {
+        void writeTo(ReportSink sink) throws IOException;
+    }
+    
+    /**
+     * Meneruskan laporan ke sink tujuan sambil menyalin teks laporan (format TXT) untuk cache.
+     * Salinan dibuang begitu melewati batas, sehingga laporan panjang tetap streaming.
+     */
+    private static final class CapturingSink extends ReportSink {
+        private final ReportSink target;
+        private final int maxChars;
+        private StringBuilder text = new StringBuilder();
+        
+        private CapturingSink(ReportSink target, int maxChars) {
+            super(null);
+            this.target = target;
+            this.maxChars = maxChars;
+        }
+        
+        private void capture(CharSequence chunk) {
+            if (text != null) {
+                if (text.length() + chunk.length() > maxChars) {
+                    text = null; // Terlalu panjang untuk cache
+                } else {
+                    text.append(chunk);
+                }
+            }
+        }
+        
+        // Teks laporan lengkap, atau null jika melewati batas
+        private String getText() {
+            return text != null ? text.toString() : null;
+        }
+        
+        @Override
+        public void begin() throws IOException {
+            target.begin();
+        }
+        
+        @Override
+        public void text(CharSequence chunk) throws IOException {
+            target.text(chunk);
+            capture(chunk);
+        }
+        
+        @Override
+        public void columns(String... names) throws IOException {
+            target.columns(names);
+        }
+        
+        @Override
+        public void row(CharSequence chunk, String... cells) throws IOException {
+            target.row(chunk, cells);
+            capture(chunk);
+        }
+        
+        @Override
+        public void value(String label, Object value) throws IOException {
+            target.value(label, value);
+            capture(label + ": " + value + "\n");
+        }
+        
+        @Override
+        public void end() throws IOException {
+            target.end();
+        }
+        
+        @Override
+        public boolean rendersText() {
+            return target.rendersText();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+    
+    // Buffer preview: melempar FULL setelah batas tercapai agar laporan berhenti ditulis
+    private static final class BoundedBuffer implements Appendable {
+        private static final IOException FULL = new IOException("Preview penuh");
+        
+        private final StringBuilder text = new StringBuilder();
+        private final int maxChars;
+        
+        private BoundedBuffer(int maxChars) {
+            this.maxChars = maxChars;
+        }
+        
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+        
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            int room = maxChars - text.length();
+            if (end - start > room) {
+                text.append(csq, start, start + room);
+                throw FULL;
+            }
+            text.append(csq, start, end);
+            return this;
+        }
+        
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c));
+        }
+        
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -15,13 +15,8 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 // Import untuk PDF generation
 import java.io.FileOutputStream;
@@ -29,16 +24,15 @@ import java.awt.Desktop;
 
 public class ReportGenerator {
     private Stage dialog;
-    private ObservableList<InventoryItem> inventoryData;
-    private ObservableList<BorrowRecord> borrowData;
-    private ObservableList<MaintenanceRecord> maintenanceData;
-    private String currentReportContent = "";
+    private ReportContentBuilder builder;
     
     public ReportGenerator(Stage parent, ObservableList<InventoryItem> inventoryData,
-                          ObservableList<BorrowRecord> borrowData, ObservableList<MaintenanceRecord> maintenanceData) {
-        this.inventoryData = inventoryData;
-        this.borrowData = borrowData;
-        this.maintenanceData = maintenanceData;
+                          ObservableList<BorrowRecord> borrowData, ObservableList<MaintenanceRecord> maintenanceData,
+                          StoreCounters counters, SecondaryIndex inventoryIndex,
+                          DateRangeIndex<BorrowRecord> borrowDates, DateRangeIndex<MaintenanceRecord> maintenanceDates,
+                          ReportCache cache) {
+        this.builder = new ReportContentBuilder(inventoryData, borrowData, maintenanceData, counters, inventoryIndex,
+            borrowDates, maintenanceDates, cache);
         createDialog(parent);
     }
     
@@ -66,13 +60,7 @@ public class ReportGenerator {
         
         // Report type selection
         ComboBox<String> reportTypeCombo = new ComboBox<>();
-        reportTypeCombo.getItems().addAll(
-            "Laporan Inventaris Lengkap",
-            "Laporan Peminjaman",
-            "Laporan Maintenance",
-            "Laporan Status Alat",
-            "Laporan Ringkasan"
-        );
+        reportTypeCombo.getItems().addAll(ReportContentBuilder.REPORT_TYPES);
         reportTypeCombo.setPromptText("Pilih Jenis Laporan");
         reportTypeCombo.setPrefHeight(35);
         reportTypeCombo.setStyle("-fx-background-radius: 5; -fx-border-radius: 5; -fx-border-color: #BDC3C7;");
@@ -143,7 +131,13 @@ public class ReportGenerator {
         exportPdfButton.setOnAction(e -> exportToPDF(reportTypeCombo.getValue(), 
             startDatePicker.getValue(), endDatePicker.getValue()));
         
-        printExportContainer.getChildren().addAll(printButton, exportTxtButton, exportPdfButton);
+        Button exportCsvButton = new Button("📊 Export CSV");
+        exportCsvButton.setPrefWidth(120);
+        exportCsvButton.setStyle("-fx-background-color: #16A085; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 5;");
+        exportCsvButton.setOnAction(e -> exportToCSV(reportTypeCombo.getValue(), 
+            startDatePicker.getValue(), endDatePicker.getValue()));
+        
+        printExportContainer.getChildren().addAll(printButton, exportTxtButton, exportPdfButton, exportCsvButton);
         
         actionContainer.getChildren().addAll(actionLabel, printExportContainer);
         
@@ -173,17 +167,15 @@ public class ReportGenerator {
         
         mainContainer.getChildren().addAll(headerLabel, formContainer);
         
-        Scene scene = new Scene(mainContainer, 650, 750);
+        Scene scene = new Scene(mainContainer, 700, 750);
         dialog.setScene(scene);
     }
     
     private void updatePreview(String reportType, LocalDate startDate, LocalDate endDate, TextArea previewArea) {
         if (reportType == null) return;
         
-        currentReportContent = generateReportContent(reportType, startDate, endDate);
-        String preview = currentReportContent.length() > 1000 ? 
-            currentReportContent.substring(0, 1000) + "\n\n... (Preview terbatas)" : currentReportContent;
-        previewArea.setText(preview);
+        // Laporan dari cache jika sudah pernah disusun; laporan panjang berhenti ditulis setelah 1000 karakter
+        previewArea.setText(builder.preview(reportType, startDate, endDate, 1000));
     }
     
     // Print Report Method
@@ -194,9 +186,6 @@ public class ReportGenerator {
         }
         
         try {
-            // Generate report content
-            String content = generateReportContent(reportType, startDate, endDate);
-            
             // Create printer job
             PrinterJob printerJob = PrinterJob.createPrinterJob();
             if (printerJob == null) {
@@ -209,12 +198,13 @@ public class ReportGenerator {
                 // Create TextFlow for printing
                 TextFlow textFlow = new TextFlow();
                 
-                // Split content into lines and create Text nodes
-                String[] lines = content.split("\n");
-                for (String line : lines) {
+                // Baris laporan langsung dialirkan ke node Text
+                try (ReportSink sink = ReportSink.ofLines(line -> {
                     Text text = new Text(line + "\n");
                     text.setFont(Font.font("Courier New", 10));
                     textFlow.getChildren().add(text);
+                })) {
+                    builder.write(reportType, startDate, endDate, sink);
                 }
                 
                 // Set page layout
@@ -253,14 +243,13 @@ public class ReportGenerator {
             new FileChooser.ExtensionFilter("Text Files", "*.txt")
         );
         
-        String filename = reportType.replace(" ", "_") + "_" + 
-            LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".txt";
+        String filename = ReportContentBuilder.fileName(reportType, "txt");
         fileChooser.setInitialFileName(filename);
         
         File file = fileChooser.showSaveDialog(dialog);
         if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.write(generateReportContent(reportType, startDate, endDate));
+            try {
+                builder.export(reportType, startDate, endDate, "txt", file);
                 
                 // Ask if user wants to open the file
                 Alert openAlert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -298,16 +287,14 @@ public class ReportGenerator {
             new FileChooser.ExtensionFilter("HTML Files", "*.html")
         );
         
-        String filename = reportType.replace(" ", "_") + "_" + 
-            LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".html";
+        String filename = ReportContentBuilder.fileName(reportType, "html");
         fileChooser.setInitialFileName(filename);
         
         File file = fileChooser.showSaveDialog(dialog);
         if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                // Generate HTML content
-                String htmlContent = generateHTMLReport(reportType, startDate, endDate);
-                writer.write(htmlContent);
+            try {
+                // HTML ditulis langsung ke file
+                builder.export(reportType, startDate, endDate, "html", file);
                 
                 // Show success message with instructions
                 Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -337,42 +324,29 @@ public class ReportGenerator {
         }
     }
     
-    // Generate HTML Report for PDF export
-    private String generateHTMLReport(String reportType, LocalDate startDate, LocalDate endDate) {
-        String textContent = generateReportContent(reportType, startDate, endDate);
-        
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html>\n<head>\n");
-        html.append("<meta charset=\"UTF-8\">\n");
-        html.append("<title>").append(reportType).append("</title>\n");
-        html.append("<style>\n");
-        html.append("body { font-family: 'Courier New', monospace; margin: 2cm; line-height: 1.4; }\n");
-        html.append("h1 { color: #2C3E50; text-align: center; border-bottom: 2px solid #3498DB; padding-bottom: 10px; }\n");
-        html.append("h2 { color: #34495E; margin-top: 25px; }\n");
-        html.append(".header { text-align: center; margin-bottom: 30px; }\n");
-        html.append(".content { white-space: pre-line; }\n");
-        html.append(".footer { margin-top: 50px; text-align: center; color: #7F8C8D; font-size: 12px; }\n");
-        html.append("@media print { body { margin: 1cm; } }\n");
-        html.append("</style>\n");
-        html.append("</head>\n<body>\n");
-        
-        html.append("<div class=\"header\">\n");
-        html.append("<h1>LAB INVENTORY SYSTEM</h1>\n");
-        html.append("<h2>").append(reportType).append("</h2>\n");
-        html.append("</div>\n");
-        
-        html.append("<div class=\"content\">\n");
-        html.append(textContent.replace("\n", "<br>\n"));
-        html.append("</div>\n");
-        
-        html.append("<div class=\"footer\">\n");
-        html.append("<p>Generated by Lab Inventory System - ").append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"))).append("</p>\n");
-        html.append("</div>\n");
-        
-        html.append("</body>\n</html>");
-        
-        return html.toString();
+    // Export to CSV Method (data tabel untuk spreadsheet)
+    private void exportToCSV(String reportType, LocalDate startDate, LocalDate endDate) {
+        if (reportType == null) {
+            showAlert("Error", "Pilih jenis laporan terlebih dahulu!", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Simpan Laporan sebagai CSV");
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+        );
+        fileChooser.setInitialFileName(ReportContentBuilder.fileName(reportType, "csv"));
+        
+        File file = fileChooser.showSaveDialog(dialog);
+        if (file != null) {
+            try {
+                builder.export(reportType, startDate, endDate, "csv", file);
+                showAlert("Sukses", "Laporan CSV disimpan di: " + file.getAbsolutePath(), Alert.AlertType.INFORMATION);
+            } catch (IOException e) {
+                showAlert("Error", "Gagal menyimpan laporan: " + e.getMessage(), Alert.AlertType.ERROR);
+            }
+        }
     }
     
     // Helper method to open file
@@ -389,195 +363,6 @@ public class ReportGenerator {
         }
     }
     
-    private String generateReportContent(String reportType, LocalDate startDate, LocalDate endDate) {
-        StringBuilder content = new StringBuilder();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMMM yyyy");
-        
-        // Header
-        content.append("==========================================\n");
-        content.append("         LAB INVENTORY SYSTEM\n");
-        content.append("==========================================\n\n");
-        content.append(reportType).append("\n");
-        content.append("Tanggal Cetak: ").append(LocalDate.now().format(formatter)).append("\n");
-        
-        if (startDate != null && endDate != null) {
-            content.append("Periode: ").append(startDate.format(formatter))
-                   .append(" - ").append(endDate.format(formatter)).append("\n");
-        }
-        content.append("\n");
-        
-        switch (reportType) {
-            case "Laporan Inventaris Lengkap":
-                generateInventoryReport(content);
-                break;
-            case "Laporan Peminjaman":
-                generateBorrowingReport(content, startDate, endDate);
-                break;
-            case "Laporan Maintenance":
-                generateMaintenanceReport(content, startDate, endDate);
-                break;
-            case "Laporan Status Alat":
-                generateStatusReport(content);
-                break;
-            case "Laporan Ringkasan":
-                generateSummaryReport(content, startDate, endDate);
-                break;
-        }
-        
-        content.append("\n==========================================\n");
-        content.append("Generated by Lab Inventory System\n");
-        content.append("==========================================");
-        
-        return content.toString();
-    }
-    
-    private void generateInventoryReport(StringBuilder content) {
-        content.append("DAFTAR INVENTARIS\n");
-        content.append("------------------------------------------\n");
-        
-        Map<String, List<InventoryItem>> byCategory = inventoryData.stream()
-            .collect(Collectors.groupingBy(InventoryItem::getKategori));
-        
-        for (Map.Entry<String, List<InventoryItem>> entry : byCategory.entrySet()) {
-            content.append("\n").append(entry.getKey()).append(":\n");
-            for (InventoryItem item : entry.getValue()) {
-                content.append(String.format("  %s - %s (%s) - %s - %s\n",
-                    item.getId(), item.getNama(), item.getMerk(), item.getKondisi(), item.getStatus()));
-            }
-        }
-        
-        content.append("\nRINGKASAN:\n");
-        content.append("Total Item: ").append(inventoryData.size()).append("\n");
-        content.append("Tersedia: ").append(inventoryData.stream().filter(i -> "Tersedia".equals(i.getStatus())).count()).append("\n");
-        content.append("Dipinjam: ").append(inventoryData.stream().filter(i -> "Dipinjam".equals(i.getStatus())).count()).append("\n");
-        content.append("Maintenance: ").append(inventoryData.stream().filter(i -> "Maintenance".equals(i.getStatus())).count()).append("\n");
-    }
-    
-    private void generateBorrowingReport(StringBuilder content, LocalDate startDate, LocalDate endDate) {
-        content.append("LAPORAN PEMINJAMAN\n");
-        content.append("------------------------------------------\n");
-        
-        List<BorrowRecord> filteredRecords = borrowData.stream()
-            .filter(record -> {
-                if (startDate == null || endDate == null) return true;
-                try {
-                    LocalDate borrowDate = LocalDate.parse(record.getBorrowDate());
-                    return !borrowDate.isBefore(startDate) && !borrowDate.isAfter(endDate);
-                } catch (Exception e) {
-                    return false;
-                }
-            })
-            .collect(Collectors.toList());
-        
-        for (BorrowRecord record : filteredRecords) {
-            content.append(String.format("%s - %s\n  Peminjam: %s (%s)\n  Tanggal: %s - %s\n  Status: %s\n\n",
-                record.getBorrowId(), record.getInventoryName(),
-                record.getBorrowerName(), record.getBorrowerType(),
-                record.getBorrowDate(), record.getReturnDate(),
-                record.getStatus()));
-        }
-        
-        content.append("RINGKASAN:\n");
-        content.append("Total Peminjaman: ").append(filteredRecords.size()).append("\n");
-        content.append("Aktif: ").append(filteredRecords.stream().filter(r -> "Dipinjam".equals(r.getStatus())).count()).append("\n");
-        content.append("Selesai: ").append(filteredRecords.stream().filter(r -> "Dikembalikan".equals(r.getStatus())).count()).append("\n");
-        content.append("Terlambat: ").append(filteredRecords.stream().filter(r -> "Terlambat".equals(r.getStatus())).count()).append("\n");
-    }
-    
-    private void generateMaintenanceReport(StringBuilder content, LocalDate startDate, LocalDate endDate) {
-        content.append("LAPORAN MAINTENANCE\n");
-        content.append("------------------------------------------\n");
-        
-        List<MaintenanceRecord> filteredRecords = maintenanceData.stream()
-            .filter(record -> {
-                if (startDate == null || endDate == null) return true;
-                try {
-                    LocalDate reportDate = LocalDate.parse(record.getReportedDate());
-                    return !reportDate.isBefore(startDate) && !reportDate.isAfter(endDate);
-                } catch (Exception e) {
-                    return false;
-                }
-            })
-            .collect(Collectors.toList());
-        
-        for (MaintenanceRecord record : filteredRecords) {
-            content.append(String.format("%s - %s\n  Alat: %s\n  Jenis: %s\n  Prioritas: %s\n  Status: %s\n  Teknisi: %s\n  Biaya: %s\n\n",
-                record.getMaintenanceId(), record.getDescription(),
-                record.getInventoryName(), record.getIssueType(),
-                record.getPriority(), record.getStatus(),
-                record.getTechnician().isEmpty() ? "-" : record.getTechnician(),
-                record.getCost().isEmpty() ? "-" : "Rp " + record.getCost()));
-        }
-        
-        double totalCost = MaintenanceManager.getTotalMaintenanceCost(filteredRecords);
-        
-        content.append("RINGKASAN:\n");
-        content.append("Total Laporan: ").append(filteredRecords.size()).append("\n");
-        content.append("Pending: ").append(filteredRecords.stream().filter(r -> "Dilaporkan".equals(r.getStatus())).count()).append("\n");
-        content.append("Dalam Proses: ").append(filteredRecords.stream().filter(r -> "Dalam Perbaikan".equals(r.getStatus())).count()).append("\n");
-        content.append("Selesai: ").append(filteredRecords.stream().filter(r -> "Selesai".equals(r.getStatus())).count()).append("\n");
-        content.append("Total Biaya: Rp ").append(String.format("%,.0f", totalCost)).append("\n");
-    }
-    
-    private void generateStatusReport(StringBuilder content) {
-        content.append("LAPORAN STATUS ALAT\n");
-        content.append("------------------------------------------\n");
-        
-        Map<String, Long> statusCount = inventoryData.stream()
-            .collect(Collectors.groupingBy(InventoryItem::getStatus, Collectors.counting()));
-        
-        Map<String, Long> conditionCount = inventoryData.stream()
-            .collect(Collectors.groupingBy(InventoryItem::getKondisi, Collectors.counting()));
-        
-        content.append("STATUS KETERSEDIAAN:\n");
-        statusCount.forEach((status, count) -> 
-            content.append("  ").append(status).append(": ").append(count).append("\n"));
-        
-        content.append("\nKONDISI ALAT:\n");
-        conditionCount.forEach((condition, count) -> 
-            content.append("  ").append(condition).append(": ").append(count).append("\n"));
-        
-        content.append("\nALAT BERMASALAH:\n");
-        inventoryData.stream()
-            .filter(item -> "Rusak".equals(item.getKondisi()) || "Maintenance".equals(item.getStatus()))
-            .forEach(item -> content.append("  ").append(item.getId()).append(" - ").append(item.getNama()).append("\n"));
-    }
-    
-    private void generateSummaryReport(StringBuilder content, LocalDate startDate, LocalDate endDate) {
-        content.append("LAPORAN RINGKASAN\n");
-        content.append("------------------------------------------\n");
-        
-        // Inventory summary
-        content.append("INVENTARIS:\n");
-        content.append("  Total Item: ").append(inventoryData.size()).append("\n");
-        content.append("  Tersedia: ").append(inventoryData.stream().filter(i -> "Tersedia".equals(i.getStatus())).count()).append("\n");
-        content.append("  Dipinjam: ").append(inventoryData.stream().filter(i -> "Dipinjam".equals(i.getStatus())).count()).append("\n");
-        content.append("  Maintenance: ").append(inventoryData.stream().filter(i -> "Maintenance".equals(i.getStatus())).count()).append("\n\n");
-        
-        // Borrowing summary
-        long activeBorrows = borrowData.stream().filter(r -> "Dipinjam".equals(r.getStatus())).count();
-        long overdueBorrows = borrowData.stream().filter(r -> "Terlambat".equals(r.getStatus())).count();
-        
-        content.append("PEMINJAMAN:\n");
-        content.append("  Aktif: ").append(activeBorrows).append("\n");
-        content.append("  Terlambat: ").append(overdueBorrows).append("\n\n");
-        
-        // Maintenance summary
-        long pendingMaintenance = maintenanceData.stream().filter(r -> "Dilaporkan".equals(r.getStatus())).count();
-        long inProgressMaintenance = maintenanceData.stream().filter(r -> "Dalam Perbaikan".equals(r.getStatus())).count();
-        
-        content.append("MAINTENANCE:\n");
-        content.append("  Pending: ").append(pendingMaintenance).append("\n");
-        content.append("  Dalam Proses: ").append(inProgressMaintenance).append("\n");
-        
-        if (startDate != null && endDate != null) {
-            List<MaintenanceRecord> periodRecords = MaintenanceManager.getCompletedMaintenanceInRange(maintenanceData, startDate, endDate);
-            double totalCost = MaintenanceManager.getTotalMaintenanceCost(periodRecords);
-            content.append("  Selesai (Periode): ").append(periodRecords.size()).append("\n");
-            content.append("  Biaya (Periode): Rp ").append(String.format("%,.0f", totalCost)).append("\n");
-        }
-    }
-    
     private VBox createFieldContainer(String label, javafx.scene.Node field) {
         VBox container = new VBox(5);
         Label fieldLabel = new Label(label);
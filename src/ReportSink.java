@@ -0,0 +1,272 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Tujuan tulis laporan yang streaming. Section laporan menulis teks dan record satu per satu
+ * langsung ke Appendable (BufferedWriter file, atau StringBuilder untuk preview), sehingga
+ * laporan sepanjang apa pun tidak pernah dibentuk sebagai satu String utuh.
+ *
+ * Setiap format memutuskan sendiri apa yang ditulis: TXT menulis teks apa adanya, HTML
+ * meng-escape teks sambil jalan, CSV hanya menulis header kolom, record dan nilai ringkasan.
+ */
+public abstract class ReportSink implements Closeable {
+    public static final String[] FORMATS = {"txt", "html", "csv"};
+
+    protected final Appendable out;
+
+    protected ReportSink(Appendable out) {
+        this.out = out;
+    }
+
+    public static ReportSink ofText(Appendable out) {
+        return new Text(out);
+    }
+
+    public static ReportSink ofHtml(Appendable out, String title) {
+        return new Html(out, title);
+    }
+
+    public static ReportSink ofCsv(Appendable out) {
+        return new Csv(out);
+    }
+
+    // Teks laporan per baris (tanpa "\n"), misal untuk node cetak; sisa baris dikirim saat close
+    public static ReportSink ofLines(Consumer<String> line) {
+        return new Text(new LineSplitter(line));
+    }
+
+    // Sink untuk ekstensi file (txt, html, csv)
+    public static ReportSink forFormat(String format, Appendable out, String title) {
+        switch (format) {
+            case "txt": return ofText(out);
+            case "html": return ofHtml(out, title);
+            case "csv": return ofCsv(out);
+            default: throw new IllegalArgumentException("Format laporan tidak dikenal: " + format);
+        }
+    }
+
+    // Dipanggil sekali sebelum isi laporan
+    public void begin() throws IOException {
+    }
+
+    // Teks laporan (judul, pemisah, ringkasan); boleh berisi beberapa baris
+    public abstract void text(CharSequence text) throws IOException;
+
+    // Header kolom untuk record berikutnya; hanya dipakai format tabel
+    public void columns(String... names) throws IOException {
+    }
+
+    // Satu record: teks untuk format dokumen, sel untuk format tabel
+    public abstract void row(CharSequence text, String... cells) throws IOException;
+
+    // Satu nilai ringkasan, ditulis sebagai "label: value"
+    public void value(String label, Object value) throws IOException {
+        text(label + ": " + value + "\n");
+    }
+
+    // Dipanggil sekali setelah isi laporan
+    public void end() throws IOException {
+    }
+
+    // False untuk format yang tidak memakai teks laporan (CSV), sehingga teks dari cache tidak berguna
+    public boolean rendersText() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out instanceof Closeable) {
+            ((Closeable) out).close();
+        } else if (out instanceof Flushable) {
+            ((Flushable) out).flush();
+        }
+    }
+
+    // Escape karakter HTML sambil menulis, tanpa membuat salinan teks
+    static void escapeHtml(CharSequence text, Appendable out, boolean lineBreaks) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': out.append("&amp;"); break;
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#x27;"); break;
+                case '\n':
+                    out.append(lineBreaks ? "<br>\n" : "\n");
+                    break;
+                default: out.append(c);
+            }
+        }
+    }
+
+    private static final class Text extends ReportSink {
+        private Text(Appendable out) {
+            super(out);
+        }
+
+        @Override
+        public void text(CharSequence text) throws IOException {
+            out.append(text);
+        }
+
+        @Override
+        public void row(CharSequence text, String... cells) throws IOException {
+            out.append(text);
+        }
+    }
+
+    // HTML siap cetak ke PDF dari browser; teks laporan di-escape per potongan
+    private static final class Html extends ReportSink {
+        private final String title;
+
+        private Html(Appendable out, String title) {
+            super(out);
+            this.title = title;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.append("<!DOCTYPE html>\n");
+            out.append("<html>\n<head>\n");
+            out.append("<meta charset=\"UTF-8\">\n");
+            out.append("<title>");
+            escapeHtml(title, out, false);
+            out.append("</title>\n");
+            out.append("<style>\n");
+            out.append("body { font-family: 'Courier New', monospace; margin: 2cm; line-height: 1.4; }\n");
+            out.append("h1 { color: #2C3E50; text-align: center; border-bottom: 2px solid #3498DB; padding-bottom: 10px; }\n");
+            out.append("h2 { color: #34495E; margin-top: 25px; }\n");
+            out.append(".header { text-align: center; margin-bottom: 30px; }\n");
+            out.append(".content { white-space: pre-line; }\n");
+            out.append(".footer { margin-top: 50px; text-align: center; color: #7F8C8D; font-size: 12px; }\n");
+            out.append("@media print { body { margin: 1cm; } }\n");
+            out.append("</style>\n");
+            out.append("</head>\n<body>\n");
+
+            out.append("<div class=\"header\">\n");
+            out.append("<h1>LAB INVENTORY SYSTEM</h1>\n");
+            out.append("<h2>");
+            escapeHtml(title, out, false);
+            out.append("</h2>\n");
+            out.append("</div>\n");
+
+            out.append("<div class=\"content\">\n");
+        }
+
+        @Override
+        public void text(CharSequence text) throws IOException {
+            escapeHtml(text, out, true);
+        }
+
+        @Override
+        public void row(CharSequence text, String... cells) throws IOException {
+            escapeHtml(text, out, true);
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.append("</div>\n");
+
+            out.append("<div class=\"footer\">\n");
+            out.append("<p>Generated by Lab Inventory System - ")
+                .append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"))).append("</p>\n");
+            out.append("</div>\n");
+
+            out.append("</body>\n</html>");
+        }
+    }
+
+    // Hanya data tabel: teks judul/pemisah dilewati, ringkasan menjadi baris label,nilai.
+    // Setiap header kolom baru diawali baris kosong sebagai pemisah antar tabel.
+    private static final class Csv extends ReportSink {
+        private boolean started;
+
+        private Csv(Appendable out) {
+            super(out);
+        }
+
+        @Override
+        public void text(CharSequence text) {
+        }
+
+        @Override
+        public boolean rendersText() {
+            return false;
+        }
+
+        @Override
+        public void columns(String... names) throws IOException {
+            if (started) {
+                out.append('\n');
+            }
+            line(names);
+        }
+
+        @Override
+        public void row(CharSequence text, String... cells) throws IOException {
+            line(cells);
+        }
+
+        @Override
+        public void value(String label, Object value) throws IOException {
+            line(label.trim(), String.valueOf(value));
+        }
+
+        private void line(String... cells) throws IOException {
+            started = true;
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(CSVTokenizer.escape(cells[i] != null ? cells[i] : ""));
+            }
+            out.append('\n');
+        }
+    }
+
+    private static final class LineSplitter implements Appendable, Closeable {
+        private final Consumer<String> line;
+        private final StringBuilder current = new StringBuilder();
+
+        private LineSplitter(Consumer<String> line) {
+            this.line = line;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c == '\n') {
+                line.accept(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (current.length() > 0) {
+                line.accept(current.toString());
+                current.setLength(0);
+            }
+        }
+    }
+}
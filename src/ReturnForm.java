@@ -46,7 +46,7 @@ public class ReturnForm {
         
         // Active borrows only
         FilteredList<BorrowRecord> activeBorrows = new FilteredList<>(borrowData, 
-            record -> "Dipinjam".equals(record.getStatus()) || "Terlambat".equals(record.getStatus()));
+            record -> record.isActive());
         
         ComboBox<BorrowRecord> borrowCombo = new ComboBox<>();
         borrowCombo.getItems().addAll(activeBorrows);
@@ -0,0 +1,154 @@
+import java.util.*;
+
+/**
+ * Index sekunder inventaris per kategori, lokasi dan status. Setiap item mendapat slot
+ * integer dan setiap nilai field menyimpan BitSet slot yang memilikinya, sehingga filter
+ * gabungan (misal kategori + status) cukup berupa irisan bitset, bukan scan predicate.
+ * Diperbarui lewat RecordStore; slot item yang dihapus dibersihkan dari bitset dan
+ * list slot dipadatkan ulang setelah slot kosong lebih banyak dari yang terisi.
+ */
+public class SecondaryIndex implements RecordStore.Listener<InventoryItem> {
+    private static final int[] FIELDS = {InventoryItem.KATEGORI, InventoryItem.LOKASI, InventoryItem.STATUS};
+
+    private final Map<Integer, Map<String, BitSet>> byField = new HashMap<>();
+    private final Map<InventoryItem, Integer> slotOf = new IdentityHashMap<>();
+    private List<InventoryItem> items = new ArrayList<>();
+    private int deadSlots;
+
+    public SecondaryIndex(RecordStore<InventoryItem> store) {
+        for (int field : FIELDS) {
+            byField.put(field, new HashMap<>());
+        }
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(InventoryItem item) {
+        if (slotOf.containsKey(item)) {
+            return;
+        }
+        if (deadSlots > 64 && deadSlots > slotOf.size()) {
+            rebuild();
+        }
+        int slot = items.size();
+        items.add(item);
+        slotOf.put(item, slot);
+        for (int field : FIELDS) {
+            bits(field, valueOf(item, field)).set(slot);
+        }
+    }
+
+    @Override
+    public synchronized void removed(InventoryItem item) {
+        Integer slot = slotOf.remove(item);
+        if (slot == null) {
+            return;
+        }
+        for (int field : FIELDS) {
+            bits(field, valueOf(item, field)).clear(slot);
+        }
+        items.set(slot, null);
+        deadSlots++;
+    }
+
+    @Override
+    public synchronized void fieldChanged(InventoryItem item, int field, String oldValue, String newValue) {
+        Integer slot = slotOf.get(item);
+        if (slot == null || !byField.containsKey(field)) {
+            return;
+        }
+        bits(field, oldValue).clear(slot);
+        bits(field, newValue).set(slot);
+    }
+
+    /**
+     * Item yang cocok dengan semua filter yang diisi (null = tidak difilter), urut slot.
+     * Tanpa filter sama sekali, mengembalikan semua item.
+     */
+    public synchronized List<InventoryItem> select(String kategori, String lokasi, String status) {
+        BitSet result = null;
+        String[] values = {kategori, lokasi, status};
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            BitSet slots = byField.get(FIELDS[i]).get(values[i]);
+            if (slots == null) {
+                return new ArrayList<>();
+            }
+            if (result == null) {
+                result = (BitSet) slots.clone();
+            } else {
+                result.and(slots);
+            }
+        }
+
+        List<InventoryItem> selected = new ArrayList<>(result != null ? result.cardinality() : slotOf.size());
+        if (result == null) {
+            for (InventoryItem item : items) {
+                if (item != null) {
+                    selected.add(item);
+                }
+            }
+        } else {
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                selected.add(items.get(slot));
+            }
+        }
+        return selected;
+    }
+
+    // Jumlah item per nilai field (kategori, lokasi atau status), tanpa membentuk list
+    public synchronized int count(int field, String value) {
+        BitSet slots = byField.get(field).get(value);
+        return slots != null ? slots.cardinality() : 0;
+    }
+
+    // Item dikelompokkan per nilai field, urut nilai; pengganti groupingBy atas seluruh list
+    public synchronized Map<String, List<InventoryItem>> groupBy(int field) {
+        Map<String, List<InventoryItem>> groups = new TreeMap<>();
+        for (Map.Entry<String, BitSet> entry : byField.get(field).entrySet()) {
+            BitSet slots = entry.getValue();
+            if (slots.isEmpty()) {
+                continue;
+            }
+            List<InventoryItem> group = new ArrayList<>(slots.cardinality());
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                group.add(items.get(slot));
+            }
+            groups.put(entry.getKey(), group);
+        }
+        return groups;
+    }
+
+    private void rebuild() {
+        List<InventoryItem> live = new ArrayList<>(slotOf.size());
+        for (InventoryItem item : items) {
+            if (item != null) {
+                live.add(item);
+            }
+        }
+        for (Map<String, BitSet> values : byField.values()) {
+            values.clear();
+        }
+        slotOf.clear();
+        items = new ArrayList<>(live.size());
+        deadSlots = 0;
+        for (InventoryItem item : live) {
+            added(item);
+        }
+    }
+
+    private BitSet bits(int field, String value) {
+        return byField.get(field).computeIfAbsent(value != null ? value : "", v -> new BitSet());
+    }
+
+    private static String valueOf(InventoryItem item, int field) {
+        switch (field) {
+            case InventoryItem.KATEGORI: return item.getKategori();
+            case InventoryItem.LOKASI: return item.getLokasi();
+            case InventoryItem.STATUS: return item.getStatus();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.function.Function;
+
+/**
+ * Penulis snapshot yang aman terhadap crash. Data ditulis ke file sementara di
+ * direktori yang sama melalui satu FileChannel ber-buffer, di-fsync, lalu di-rename
+ * secara atomik menggantikan file lama. File asli tidak pernah terpotong di tengah jalan.
+ */
+public class SnapshotWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Path target;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private boolean committed;
+
+    public SnapshotWriter(String fileName) throws IOException {
+        this.target = Paths.get(fileName).toAbsolutePath();
+        this.tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Tulis seluruh baris CSV (header + satu baris per record) secara atomik.
+     * Mengembalikan false jika gagal; file lama tetap utuh.
+     */
+    public static <T> boolean writeCsv(String fileName, String header, Iterable<T> rows, Function<T, String> toCsv) {
+        try (SnapshotWriter writer = new SnapshotWriter(fileName)) {
+            writer.writeLine(header);
+            for (T row : rows) {
+                writer.writeLine(toCsv.apply(row));
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot " + fileName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void writeLine(String line) throws IOException {
+        write(line);
+        write(LINE_SEPARATOR);
+    }
+
+    public void write(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Flush, fsync lalu rename atomik ke file tujuan
+    public void commit() throws IOException {
+        drain();
+        channel.force(true);
+        channel.close();
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            // Gagal di tengah jalan: buang file sementara, file lama tidak disentuh
+            channel.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.*;
+
+/**
+ * Menyelaraskan status inventaris dengan data peminjaman dan maintenance.
+ * Peminjaman aktif dan maintenance terbuka dikumpulkan ke dalam set (satu pass
+ * per list), lalu status setiap item ditentukan dalam satu pass inventaris,
+ * sehingga biayanya O(n + m) dan bukan O(n * m).
+ */
+public class StatusReconciler {
+
+    /**
+     * Tetapkan status setiap item: Dipinjam jika ada peminjaman aktif, Maintenance jika
+     * ada maintenance terbuka, Tersedia jika kondisinya Baik. Mengembalikan jumlah item
+     * yang statusnya berubah.
+     */
+    public static int reconcile(List<InventoryItem> inventory, List<BorrowRecord> borrows,
+                                List<MaintenanceRecord> maintenance) {
+        Set<String> borrowed = BorrowManager.getActiveBorrowInventoryIds(borrows);
+        Set<String> underMaintenance = MaintenanceManager.getOpenMaintenanceInventoryIds(maintenance);
+
+        int changed = 0;
+        for (InventoryItem item : inventory) {
+            String status;
+            if (borrowed.contains(item.getId())) {
+                status = "Dipinjam";
+            } else if (underMaintenance.contains(item.getId())) {
+                status = "Maintenance";
+            } else if ("Baik".equals(item.getKondisi())) {
+                status = "Tersedia";
+            } else {
+                continue; // Kondisi rusak tanpa transaksi: status dibiarkan
+            }
+
+            if (!status.equals(item.getStatus())) {
+                item.setStatus(status);
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
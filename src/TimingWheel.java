@@ -0,0 +1,104 @@
+import java.util.*;
+
+/**
+ * Timing wheel hierarkis dengan satuan hari (epoch day). Level 0 punya 64 slot satu hari,
+ * setiap level di atasnya 64 slot yang masing-masing 64 kali lebih lebar (64 hari,
+ * 4096 hari, ...). Entri disimpan di level terendah yang masih mencakup jaraknya dari hari
+ * ini; saat roda berputar melewati batas blok, slot level atas diturunkan (cascade) ke
+ * level di bawahnya. Menambah entri O(1) dan memajukan satu hari hanya menyentuh slot hari
+ * itu, tanpa memeriksa entri lain.
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4; // 64^4 hari, lebih dari cukup untuk jadwal maintenance
+
+    private static final class Entry<T> {
+        private final int day;
+        private final T value;
+
+        private Entry(int day, T value) {
+            this.day = day;
+            this.value = value;
+        }
+    }
+
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<T>> ready = new ArrayList<>(); // Jatuh tempo, belum diambil
+    private int currentDay;
+    private int size;
+
+    public TimingWheel(int currentDay) {
+        this.currentDay = currentDay;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public int getCurrentDay() {
+        return currentDay;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Jadwalkan value pada hari tertentu; hari yang sudah lewat langsung jatuh tempo
+    public void schedule(int day, T value) {
+        place(new Entry<>(day, value));
+        size++;
+    }
+
+    /**
+     * Majukan roda sampai hari tertentu (inklusif) dan kembalikan semua value yang jatuh
+     * tempo, urut hari. Hari yang terlewat (aplikasi tidak berjalan) ikut diproses.
+     */
+    public List<T> advanceTo(int day) {
+        while (currentDay < day) {
+            currentDay++;
+            // Level atas dulu: entri yang turun bisa jatuh tempo tepat hari ini
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentDay & ((1 << shift) - 1)) == 0) {
+                    cascade(slot(level, (currentDay >> shift) & (SLOTS - 1)));
+                }
+            }
+            List<Entry<T>> today = slot(0, currentDay & (SLOTS - 1));
+            ready.addAll(today);
+            today.clear();
+        }
+
+        List<T> due = new ArrayList<>(ready.size());
+        for (Entry<T> entry : ready) {
+            due.add(entry.value);
+        }
+        size -= ready.size();
+        ready.clear();
+        return due;
+    }
+
+    private void cascade(List<Entry<T>> slot) {
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = (long) entry.day - currentDay;
+        if (delta <= 0) {
+            ready.add(entry);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, (entry.day >> (SLOT_BITS * level)) & (SLOTS - 1)).add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+}
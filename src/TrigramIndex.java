@@ -0,0 +1,222 @@
+import java.util.*;
+
+/**
+ * Index terbalik trigram untuk pencarian substring inventaris. Setiap item mendapat slot
+ * integer; untuk setiap field (id, nama, kategori, merk, lokasi) setiap trigram teks
+ * lowercase-nya menyimpan posting list slot yang terurut. Query dijawab dengan
+ * mengiris posting list trigram query per field, lalu menggabungkan hasil antar field.
+ *
+ * Hasilnya kandidat: item yang pasti memuat semua trigram query dalam satu field.
+ * Pemanggil tetap memverifikasi substring, tetapi hanya pada kandidat, bukan seluruh list.
+ * Index diperbarui lewat RecordStore pada setiap tambah, hapus dan perubahan field.
+ * Item yang dihapus hanya ditandai (slot kosong); index dibangun ulang setelah slot mati
+ * lebih banyak dari yang hidup, agar hapus massal (misal setAll) tidak menjadi kuadratik.
+ */
+public class TrigramIndex implements RecordStore.Listener<InventoryItem> {
+    private static final int[] FIELDS = {
+        InventoryItem.ID, InventoryItem.NAMA, InventoryItem.KATEGORI, InventoryItem.MERK, InventoryItem.LOKASI
+    };
+
+    // Slot terurut untuk satu trigram pada satu field
+    private static final class Posting {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+            slots[pos] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos >= 0) {
+                System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private final Map<InventoryItem, Integer> slotOf = new IdentityHashMap<>();
+    private List<InventoryItem> items = new ArrayList<>();
+    private int deadSlots;
+
+    public TrigramIndex(RecordStore<InventoryItem> store) {
+        store.addListener(this);
+    }
+
+    @Override
+    public synchronized void added(InventoryItem item) {
+        if (slotOf.containsKey(item)) {
+            return;
+        }
+        compactIfNeeded();
+        int slot = items.size();
+        items.add(item);
+        slotOf.put(item, slot);
+        for (int field : FIELDS) {
+            index(field, valueOf(item, field), slot, true);
+        }
+    }
+
+    @Override
+    public synchronized void removed(InventoryItem item) {
+        Integer slot = slotOf.remove(item);
+        if (slot == null) {
+            return;
+        }
+        // Posting lama dibiarkan; slot kosong dilewati saat query
+        items.set(slot, null);
+        deadSlots++;
+    }
+
+    // Bangun ulang jika slot mati sudah lebih banyak dari yang hidup (dicek saat tambah/query)
+    private void compactIfNeeded() {
+        if (deadSlots > 64 && deadSlots > slotOf.size()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        List<InventoryItem> live = new ArrayList<>(slotOf.size());
+        for (InventoryItem item : items) {
+            if (item != null) {
+                live.add(item);
+            }
+        }
+        postings.clear();
+        slotOf.clear();
+        items = new ArrayList<>(live.size());
+        deadSlots = 0;
+        for (InventoryItem item : live) {
+            added(item);
+        }
+    }
+
+    @Override
+    public synchronized void fieldChanged(InventoryItem item, int field, String oldValue, String newValue) {
+        Integer slot = slotOf.get(item);
+        if (slot == null || !isIndexed(field)) {
+            return;
+        }
+        index(field, oldValue, slot, false);
+        index(field, newValue, slot, true);
+    }
+
+    /**
+     * Item yang mungkin memuat query sebagai substring di salah satu field terindex.
+     * Mengembalikan null jika query kurang dari 3 karakter (tidak bisa dipersempit);
+     * pemanggil harus memeriksa semua item pada kasus itu.
+     */
+    public synchronized Set<InventoryItem> search(String query) {
+        String text = query != null ? query.toLowerCase() : "";
+        if (text.length() < 3) {
+            return null;
+        }
+        compactIfNeeded();
+        long[] grams = trigrams(text);
+        Set<InventoryItem> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int field : FIELDS) {
+            collect(field, grams, result);
+        }
+        return result;
+    }
+
+    // Iris posting list semua trigram query untuk satu field, mulai dari yang terpendek
+    private void collect(int field, long[] grams, Set<InventoryItem> result) {
+        Posting[] lists = new Posting[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(key(field, grams[i]));
+            if (lists[i] == null) {
+                return; // Ada trigram yang tidak pernah muncul di field ini
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(posting -> posting.size));
+        Posting smallest = lists[0];
+        for (int i = 0; i < smallest.size; i++) {
+            int slot = smallest.slots[i];
+            boolean all = true;
+            for (int j = 1; j < lists.length && all; j++) {
+                all = lists[j].contains(slot);
+            }
+            InventoryItem item = items.get(slot);
+            if (all && item != null) {
+                result.add(item);
+            }
+        }
+    }
+
+    private void index(int field, String value, int slot, boolean add) {
+        if (value == null || value.length() < 3) {
+            return;
+        }
+        for (long gram : trigrams(value.toLowerCase())) {
+            Long key = key(field, gram);
+            if (add) {
+                postings.computeIfAbsent(key, k -> new Posting()).add(slot);
+            } else {
+                Posting posting = postings.get(key);
+                if (posting != null) {
+                    posting.remove(slot);
+                    if (posting.size == 0) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    // Trigram unik dari teks, masing-masing 3 char dikemas ke dalam satu long
+    private static long[] trigrams(String text) {
+        int count = text.length() - 2;
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[i] != grams[unique - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return unique == count ? grams : Arrays.copyOf(grams, unique);
+    }
+
+    private static long key(int field, long gram) {
+        return ((long) field << 48) | gram;
+    }
+
+    private static boolean isIndexed(int field) {
+        for (int indexed : FIELDS) {
+            if (indexed == field) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String valueOf(InventoryItem item, int field) {
+        switch (field) {
+            case InventoryItem.ID: return item.getId();
+            case InventoryItem.NAMA: return item.getNama();
+            case InventoryItem.KATEGORI: return item.getKategori();
+            case InventoryItem.MERK: return item.getMerk();
+            case InventoryItem.LOKASI: return item.getLokasi();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+import java.io.Closeable;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Persistensi write-behind. Handler UI hanya mencatat perubahan (baris CSV diambil saat
+ * itu juga di thread pemanggil), lalu satu thread khusus menulisnya ke journal. Perubahan
+ * yang datang beruntun digabung menjadi satu flush per store: paling lama maxDelay setelah
+ * perubahan pertama, dan key yang sama hanya ditulis sekali dengan nilai terakhirnya.
+ *
+ * Jika journal sebuah store sudah perlu compaction, salinan list diambil saat submit dan
+ * ditulis sebagai snapshot penuh oleh thread yang sama, sehingga list live tidak pernah
+ * dibaca dari luar thread pemiliknya.
+ *
+ * Penulis journal dan snapshot mengembalikan false jika gagal. Perubahan yang gagal tetap
+ * dihitung di getFailedWrites() dan store-nya ditandai: perubahan berikutnya untuk store itu
+ * dikirim sebagai snapshot penuh dari list live, sehingga perubahan yang gagal ikut tertulis.
+ * Tanda baru dihapus setelah snapshot store tersebut berhasil.
+ */
+public class WriteBehindPersister implements Closeable {
+    public static final long DEFAULT_MAX_DELAY_MS = 500;
+
+    // Cara menulis satu store: key dan baris per record, penulis journal dan snapshot
+    public static final class Store<T> {
+        private final String name;
+        private final Function<T, String> keyOf;
+        private final Function<T, String> rowOf;
+        private final Predicate<Map<String, String>> changeWriter;
+        private final BooleanSupplier needsCompaction;
+        private final Predicate<List<T>> snapshotWriter;
+
+        public Store(String name, Function<T, String> keyOf, Function<T, String> rowOf,
+                     Predicate<Map<String, String>> changeWriter, BooleanSupplier needsCompaction,
+                     Predicate<List<T>> snapshotWriter) {
+            this.name = name;
+            this.keyOf = keyOf;
+            this.rowOf = rowOf;
+            this.changeWriter = changeWriter;
+            this.needsCompaction = needsCompaction;
+            this.snapshotWriter = snapshotWriter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String keyOf(T record) {
+            return keyOf.apply(record);
+        }
+    }
+
+    // Perubahan satu store yang belum ditulis
+    private static final class Pending<T> {
+        private final long since = System.nanoTime();
+        private final Map<String, String> changes = new LinkedHashMap<>(); // null = delete
+        private List<T> snapshot; // Ditulis lebih dulu, mencakup semua perubahan sebelumnya
+        private int submissions;
+    }
+
+    private final long maxDelayNanos;
+    private final Map<Store<?>, Pending<?>> pending = new LinkedHashMap<>();
+    private final Set<Store<?>> compacting = new HashSet<>();
+    private final Thread worker;
+    private int depth; // Perubahan yang belum tertulis (antri + sedang ditulis)
+    private final Map<Store<?>, Integer> failed = new HashMap<>(); // Perubahan yang belum tersimpan karena gagal
+    private String lastError;
+    private Consumer<String> onFailure;
+    private boolean flushRequested;
+    private boolean closed;
+
+    public WriteBehindPersister() {
+        this(DEFAULT_MAX_DELAY_MS);
+    }
+
+    public WriteBehindPersister(long maxDelayMillis) {
+        this.maxDelayNanos = Math.max(0, maxDelayMillis) * 1_000_000;
+        this.worker = new Thread(this::run, "write-behind");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Catat record yang ditambah/diubah
+    public <T> void put(Store<T> store, List<T> data, T record) {
+        putAll(store, data, Collections.singletonList(record), Collections.emptyList());
+    }
+
+    // Catat record yang dihapus
+    public <T> void delete(Store<T> store, List<T> data, String key) {
+        putAll(store, data, Collections.emptyList(), Collections.singletonList(key));
+    }
+
+    // Catat sekumpulan record yang berubah dan key yang dihapus dalam satu antrian
+    public synchronized <T> void putAll(Store<T> store, List<T> data, Collection<T> records,
+                                        Collection<String> deletedKeys) {
+        Pending<T> entry = pendingFor(store);
+        if (entry.snapshot == null && (failed.containsKey(store)
+                || !compacting.contains(store) && store.needsCompaction.getAsBoolean())) {
+            // Salinan diambil sekarang sudah memuat perubahan ini dan semua sebelumnya,
+            // termasuk yang gagal ditulis
+            entry.snapshot = new ArrayList<>(data);
+            entry.changes.clear();
+        } else {
+            for (String key : deletedKeys) {
+                change(entry, key, null);
+            }
+            for (T record : records) {
+                change(entry, store.keyOf.apply(record), store.rowOf.apply(record));
+            }
+        }
+        submitted(entry, records.size() + deletedKeys.size());
+    }
+
+    // Minta snapshot penuh, misal setelah perubahan massal
+    public synchronized <T> void saveAll(Store<T> store, List<T> data) {
+        Pending<T> entry = pendingFor(store);
+        entry.snapshot = new ArrayList<>(data);
+        entry.changes.clear();
+        submitted(entry, 1);
+    }
+
+    private <T> Pending<T> pendingFor(Store<T> store) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind sudah ditutup, perubahan " + store.name + " tidak tersimpan");
+        }
+        @SuppressWarnings("unchecked")
+        Pending<T> entry = (Pending<T>) pending.computeIfAbsent(store, s -> new Pending<T>());
+        return entry;
+    }
+
+    private static void change(Pending<?> entry, String key, String row) {
+        entry.changes.remove(key); // Urutan mengikuti perubahan terakhir
+        entry.changes.put(key, row);
+    }
+
+    private void submitted(Pending<?> entry, int count) {
+        entry.submissions += count;
+        depth += count;
+        notifyAll();
+    }
+
+    // Jumlah perubahan yang belum tertulis ke disk
+    public synchronized int getPendingWrites() {
+        return depth;
+    }
+
+    // Jumlah perubahan yang gagal ditulis dan belum tertutup snapshot yang berhasil
+    public synchronized int getFailedWrites() {
+        int total = 0;
+        for (int count : failed.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    // True jika store punya perubahan gagal; penyimpanan berikutnya harus snapshot penuh
+    public synchronized boolean hasFailed(Store<?> store) {
+        return failed.containsKey(store);
+    }
+
+    // Dipanggil dari thread write-behind setiap kali penulisan gagal, dengan pesan errornya
+    public synchronized void setOnFailure(Consumer<String> onFailure) {
+        this.onFailure = onFailure;
+    }
+
+    // Pesan kegagalan tulis terakhir, atau null
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Tulis semua perubahan sekarang tanpa menunggu delay dan tunggu sampai selesai.
+     * Jangan dipanggil dari thread write-behind sendiri.
+     */
+    public synchronized void flush() {
+        if (depth == 0) {
+            return;
+        }
+        flushRequested = true;
+        notifyAll();
+        try {
+            while (depth > 0) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Flush sisa perubahan lalu hentikan thread; dipanggil saat aplikasi ditutup
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Map<Store<?>, Pending<?>> batch;
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && !closed) {
+                        wait();
+                    }
+                    if (pending.isEmpty()) {
+                        return; // Ditutup dan tidak ada sisa
+                    }
+                    // Tunggu perubahan berikutnya sampai perubahan tertua mencapai batas delay
+                    long deadline = pending.values().iterator().next().since + maxDelayNanos;
+                    long remaining;
+                    while (!closed && !flushRequested && (remaining = deadline - System.nanoTime()) > 0) {
+                        wait(Math.max(1, remaining / 1_000_000));
+                    }
+                } catch (InterruptedException e) {
+                    closed = true; // Tetap tulis sisa perubahan sebelum berhenti
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                flushRequested = false;
+                for (Map.Entry<Store<?>, Pending<?>> entry : batch.entrySet()) {
+                    if (entry.getValue().snapshot != null) {
+                        compacting.add(entry.getKey());
+                    }
+                }
+            }
+
+            int written = 0;
+            Map<Store<?>, String> errors = new LinkedHashMap<>();
+            for (Map.Entry<Store<?>, Pending<?>> entry : batch.entrySet()) {
+                written += entry.getValue().submissions;
+                String error = write(entry.getKey(), entry.getValue());
+                if (error != null) {
+                    errors.put(entry.getKey(), error);
+                }
+            }
+
+            Consumer<String> listener;
+            synchronized (this) {
+                depth -= written;
+                for (Map.Entry<Store<?>, Pending<?>> entry : batch.entrySet()) {
+                    Store<?> store = entry.getKey();
+                    String error = errors.get(store);
+                    if (error != null) {
+                        failed.merge(store, entry.getValue().submissions, Integer::sum);
+                        lastError = error;
+                    } else if (entry.getValue().snapshot != null) {
+                        failed.remove(store); // Snapshot memuat semua perubahan yang dulu gagal
+                    }
+                }
+                listener = onFailure;
+                compacting.removeAll(batch.keySet());
+                notifyAll();
+            }
+            if (listener != null) {
+                for (String error : errors.values()) {
+                    listener.accept(error);
+                }
+            }
+        }
+    }
+
+    // Pesan kegagalan, atau null jika snapshot dan journal tertulis
+    @SuppressWarnings("unchecked")
+    private <T> String write(Store<T> store, Pending<?> entry) {
+        Pending<T> typed = (Pending<T>) entry;
+        try {
+            if (typed.snapshot != null && !store.snapshotWriter.test(typed.snapshot)) {
+                return "snapshot " + store.name + " gagal ditulis";
+            }
+            if (!typed.changes.isEmpty() && !store.changeWriter.test(typed.changes)) {
+                return "journal " + store.name + " gagal ditulis";
+            }
+            return null;
+        } catch (RuntimeException e) {
+            System.err.println("Error writing " + store.name + ": " + e.getMessage());
+            return store.name + ": " + e.getMessage();
+        }
+    }
+}